@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ * It runs the JMH benchmarks with the GC profiler, so the report gives for each kernel
+ * the time (ns/op) and the allocation rate (gc.alloc.rate.norm, bytes/op),
+ * and writes the results in JSON (jmh-result.json) for to compare commits.
+ * The usual JMH command line options can be given (e.g. a regexp of the benchmarks to run).
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * Private constructor to hide the public one
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Run the benchmarks
+     *
+     * @param args JMH command line options
+     * @throws RunnerException            if a benchmark fails
+     * @throws CommandLineOptionException if the options are wrong
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,14 @@
+package benchmarks;
+
+import renderer.Camera;
+import scene.Scene;
+
+/**
+ * A scene of the render benchmarks with the camera looking at it
+ * (the image writer and the ray tracer are set by the benchmark)
+ *
+ * @param scene  the scene
+ * @param camera the camera, with its view plane
+ */
+record BenchmarkScene(Scene scene, Camera camera) {
+}
@@ -0,0 +1,247 @@
+package benchmarks;
+
+import geometries.Geometry;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.*;
+import renderer.Camera;
+import scene.Scene;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.awt.Color.*;
+
+/**
+ * The scenes of the render benchmarks: the scenes of the rendering tests
+ * (RenderTests, LightsTests, ShadowTests and ReflectionRefractionTests), built again
+ * for every run. The names are the names of the images of the tests.
+ */
+final class BenchmarkScenes {
+
+    /**
+     * The scenes by name, in the order of the report
+     */
+    static final Map<String, Supplier<BenchmarkScene>> SCENES = new LinkedHashMap<>();
+
+    static {
+        SCENES.put("base render test", BenchmarkScenes::basicRenderTwoColor);
+        SCENES.put("color render test", BenchmarkScenes::basicRenderMultiColor);
+        SCENES.put("lightSphereDirectional",
+                () -> lightSphere(new DirectionalLight(new Color(800, 500, 0), new Vector(1, 1, -0.5))));
+        SCENES.put("lightSpherePoint",
+                () -> lightSphere(new PointLight(new Color(800, 500, 0), new Point(-50, -50, 25))
+                        .setKl(0.001).setKq(0.0002)));
+        SCENES.put("lightSphereSpot",
+                () -> lightSphere(new SpotLight(new Color(800, 500, 0), new Point(-50, -50, 25), new Vector(1, 1, -0.5))
+                        .setKl(0.001).setKq(0.0001)));
+        SCENES.put("lightTrianglesDirectional",
+                () -> lightTriangles(new DirectionalLight(new Color(800, 500, 250), new Vector(-2, -2, -2))));
+        SCENES.put("lightTrianglesPoint",
+                () -> lightTriangles(new PointLight(new Color(800, 500, 250), new Point(30, 10, -100))
+                        .setKl(0.001).setKq(0.0002)));
+        SCENES.put("lightTrianglesSpot",
+                () -> lightTriangles(new SpotLight(new Color(800, 500, 250), new Point(30, 10, -100), new Vector(-2, -2, -2))
+                        .setKl(0.001).setKq(0.0001)));
+        SCENES.put("shadowSphereTriangleInitial", BenchmarkScenes::shadowSphereTriangle);
+        SCENES.put("shadowTrianglesSphere", BenchmarkScenes::shadowTrianglesSphere);
+        SCENES.put("refractionTwoSpheres", BenchmarkScenes::refractionTwoSpheres);
+        SCENES.put("reflectionTwoSpheresMirrored", BenchmarkScenes::reflectionTwoSpheresMirrored);
+        SCENES.put("refractionShadow", BenchmarkScenes::refractionShadow);
+    }
+
+    /**
+     * Private constructor to hide the public one
+     */
+    private BenchmarkScenes() {
+    }
+
+    /**
+     * Scene of RenderTests.basicRenderTwoColorTest
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene basicRenderTwoColor() {
+        Scene scene = new Scene("base render test")
+                .setAmbientLight(new AmbientLight(new Color(255, 191, 191), new Double3(1, 1, 1)))
+                .setBackground(new Color(75, 127, 90));
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -100), 50d),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, -100, -100), new Point(-100, -100, -100)),
+                new Triangle(new Point(100, 0, -100), new Point(0, -100, -100), new Point(100, -100, -100)));
+        return new BenchmarkScene(scene, new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500));
+    }
+
+    /**
+     * Scene of RenderTests.basicRenderMultiColorTest
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene basicRenderMultiColor() {
+        Scene scene = new Scene("color render test")
+                .setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.2)));
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -100), 50),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100))
+                        .setEmission(new Color(GREEN)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, -100, -100), new Point(-100, -100, -100))
+                        .setEmission(new Color(RED)),
+                new Triangle(new Point(100, 0, -100), new Point(0, -100, -100), new Point(100, -100, -100))
+                        .setEmission(new Color(BLUE)));
+        return new BenchmarkScene(scene, new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100).setVPSize(500, 500));
+    }
+
+    /**
+     * Scenes of LightsTests with the sphere
+     *
+     * @param light the light of the scene
+     * @return the scene
+     */
+    private static BenchmarkScene lightSphere(LightSource light) {
+        Scene scene = new Scene("light sphere");
+        scene.geometries.add(new Sphere(new Point(0, 0, -50), 50d)
+                .setEmission(new Color(BLUE).reduce(2))
+                .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(301)));
+        scene.lights.add(light);
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(150, 150).setVPDistance(1000));
+    }
+
+    /**
+     * Scenes of LightsTests with the triangles
+     *
+     * @param light the light of the scene
+     * @return the scene
+     */
+    private static BenchmarkScene lightTriangles(LightSource light) {
+        Scene scene = new Scene("light triangles")
+                .setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.15)));
+        Material material = new Material().setKd(new Double3(0.2, 0.6, 0.4)).setKs(new Double3(0.2, 0.4, 0.3))
+                .setShininess(301);
+        Point[] vertices = {
+                new Point(-110, -110, -150), new Point(95, 100, -150),
+                new Point(110, -110, -150), new Point(-75, 78, 100)};
+        scene.geometries.add(
+                new Triangle(vertices[0], vertices[1], vertices[2]).setMaterial(material),
+                new Triangle(vertices[0], vertices[1], vertices[3]).setMaterial(material));
+        scene.lights.add(light);
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000));
+    }
+
+    /**
+     * Scene of ShadowTests.sphereTriangleInitial
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene shadowSphereTriangle() {
+        Scene scene = new Scene("shadow sphere triangle");
+        Geometry sphere = new Sphere(new Point(0, 0, -200), 60d)
+                .setEmission(new Color(BLUE))
+                .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30));
+        Geometry triangle = new Triangle(new Point(-70, -40, 0), new Point(-40, -70, 0), new Point(-68, -68, -4))
+                .setEmission(new Color(BLUE))
+                .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30));
+        scene.geometries.add(sphere, triangle);
+        scene.lights.add(new SpotLight(new Color(400, 240, 0), new Point(-100, -100, 200), new Vector(1, 1, -3))
+                .setKl(1E-5).setKq(1.5E-7));
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000));
+    }
+
+    /**
+     * Scene of ShadowTests.trianglesSphere
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene shadowTrianglesSphere() {
+        Scene scene = new Scene("shadow triangles sphere")
+                .setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.15)));
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKs(0.8).setShininess(60)),
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKs(0.8).setShininess(60)),
+                new Sphere(new Point(0, 0, -11), 30d)
+                        .setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(40, 40, 115), new Vector(-1, -1, -4))
+                .setKl(4E-4).setKq(2E-5));
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000));
+    }
+
+    /**
+     * Scene of ReflectionRefractionTests.twoSpheres
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene refractionTwoSpheres() {
+        Scene scene = new Scene("refraction two spheres");
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -50), 50d).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setKt(0.3)),
+                new Sphere(new Point(0, 0, -50), 25d).setEmission(new Color(RED))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)));
+        scene.lights.add(new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2))
+                .setKl(0.0004).setKq(0.0000006));
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(150, 150).setVPDistance(1000));
+    }
+
+    /**
+     * Scene of ReflectionRefractionTests.twoSpheresOnMirrors
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene reflectionTwoSpheresMirrored() {
+        Scene scene = new Scene("reflection two spheres mirrored")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries.add(
+                new Sphere(new Point(-950, -900, -1000), 400d).setEmission(new Color(0, 50, 100))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)
+                                .setKt(new Double3(0.5, 0, 0))),
+                new Sphere(new Point(-950, -900, -1000), 200d).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500), new Point(670, 670, 3000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(1)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500), new Point(-1500, -1500, -2000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+                .setKl(0.00001).setKq(0.000005));
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(2500, 2500).setVPDistance(10000));
+    }
+
+    /**
+     * Scene of ReflectionRefractionTests.trianglesTransparentSphere
+     *
+     * @return the scene
+     */
+    private static BenchmarkScene refractionShadow() {
+        Scene scene = new Scene("refraction shadow")
+                .setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                new Sphere(new Point(60, 50, -50), 30d).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.2).setKs(0.2).setShininess(30).setKt(0.6)));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(60, 50, 0), new Vector(0, 0, -1))
+                .setKl(4E-5).setKq(2E-7));
+        return new BenchmarkScene(scene, new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(200, 200).setVPDistance(1000));
+    }
+}
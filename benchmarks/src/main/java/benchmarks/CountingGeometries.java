@@ -0,0 +1,72 @@
+package benchmarks;
+
+import geometries.Geometries;
+import geometries.Intersectable;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Geometries of a benchmarked scene: it wraps the geometries of the scene and counts
+ * the queries of the ray tracer (safe for the parallel render)
+ */
+class CountingGeometries extends Geometries {
+
+    /**
+     * Number of closest-hit queries: camera rays and secondary (reflected/refracted) rays
+     */
+    private final LongAdder rays = new LongAdder();
+
+    /**
+     * Number of occlusion queries: shadow rays
+     */
+    private final LongAdder shadowRays = new LongAdder();
+
+    /**
+     * Constructor of CountingGeometries
+     *
+     * @param geometries the geometries of the scene
+     */
+    CountingGeometries(Intersectable geometries) {
+        super(geometries);
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        rays.increment();
+        return super.findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        shadowRays.increment();
+        return super.findTransparencyHelper(ray, maxDistance, ktr, minK);
+    }
+
+    /**
+     * Getter for the number of camera and secondary rays
+     *
+     * @return number of rays since the last reset
+     */
+    long getRays() {
+        return rays.sum();
+    }
+
+    /**
+     * Getter for the number of shadow rays
+     *
+     * @return number of shadow rays since the last reset
+     */
+    long getShadowRays() {
+        return shadowRays.sum();
+    }
+
+    /**
+     * Reset the counters before a run
+     */
+    void reset() {
+        rays.reset();
+        shadowRays.reset();
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import geometries.Intersectable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Ray;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the intersection kernels of the geometries.
+ * Each operation is the intersection of one ray (taken in turn from a fixed array of rays
+ * of the distribution) with the geometry of the kernel.
+ * Run with the GC profiler (see {@link BenchmarkRunner}) for the allocation rate per kernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntersectionBenchmark {
+
+    /**
+     * Number of rays of each distribution (a power of 2)
+     */
+    private static final int RAYS_COUNT = 1024;
+
+    /**
+     * The geometry measured
+     */
+    @Param({"SPHERE", "PLANE", "POLYGON", "TRIANGLE", "TUBE", "CYLINDER"})
+    public Kernel kernel;
+
+    /**
+     * The kind of rays
+     */
+    @Param({"HIT", "MISS", "GRAZING"})
+    public RayDistribution distribution;
+
+    /**
+     * Geometry of the kernel
+     */
+    private Intersectable geometry;
+
+    /**
+     * Rays of the distribution
+     */
+    private Ray[] rays;
+
+    /**
+     * Index of the next ray
+     */
+    private int next;
+
+    /**
+     * Create the geometry and its rays (same rays for every run)
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        geometry = kernel.create();
+        rays = distribution.generate(geometry, RAYS_COUNT, 5783L);
+        next = 0;
+    }
+
+    /**
+     * Next ray of the array
+     *
+     * @return the ray
+     */
+    private Ray nextRay() {
+        Ray ray = rays[next];
+        next = (next + 1) & (RAYS_COUNT - 1);
+        return ray;
+    }
+
+    /**
+     * All the intersections of a ray
+     *
+     * @param blackhole sink for the result
+     */
+    @Benchmark
+    public void findGeoIntsersections(Blackhole blackhole) {
+        blackhole.consume(geometry.findGeoIntsersections(nextRay()));
+    }
+
+    /**
+     * The closest intersection of a ray
+     *
+     * @param blackhole sink for the result
+     */
+    @Benchmark
+    public void findClosestGeoIntersection(Blackhole blackhole) {
+        blackhole.consume(geometry.findClosestGeoIntersection(nextRay()));
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import geometries.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * The intersection kernels measured by the benchmarks: one geometry of each type,
+ * all of them around the origin with a size of about 1
+ */
+public enum Kernel {
+
+    /**
+     * Sphere centered at the origin
+     */
+    SPHERE {
+        @Override
+        Intersectable create() {
+            return new Sphere(new Point(0, 0, 0), 1);
+        }
+    },
+
+    /**
+     * Plane through the origin, slightly tilted
+     */
+    PLANE {
+        @Override
+        Intersectable create() {
+            return new Plane(new Point(0, 0, 0), new Vector(0.1, 0.2, 1));
+        }
+    },
+
+    /**
+     * Convex pentagon in the plane z = 0
+     */
+    POLYGON {
+        @Override
+        Intersectable create() {
+            return new Polygon(new Point(1, 0, 0), new Point(0.3, 0.95, 0), new Point(-0.8, 0.6, 0),
+                    new Point(-0.8, -0.6, 0), new Point(0.3, -0.95, 0));
+        }
+    },
+
+    /**
+     * Triangle in the plane z = 0
+     */
+    TRIANGLE {
+        @Override
+        Intersectable create() {
+            return new Triangle(new Point(1, 0, 0), new Point(-0.5, 0.87, 0), new Point(-0.5, -0.87, 0));
+        }
+    },
+
+    /**
+     * Infinite tube along the y axis
+     */
+    TUBE {
+        @Override
+        Intersectable create() {
+            return new Tube(new Ray(new Point(0, -1, 0), new Vector(0, 1, 0)), 1);
+        }
+    },
+
+    /**
+     * Cylinder along the y axis
+     */
+    CYLINDER {
+        @Override
+        Intersectable create() {
+            return new Cylinder(1, new Ray(new Point(0, -1, 0), new Vector(0, 1, 0)), 2);
+        }
+    };
+
+    /**
+     * Create the geometry of the kernel
+     *
+     * @return new geometry
+     */
+    abstract Intersectable create();
+}
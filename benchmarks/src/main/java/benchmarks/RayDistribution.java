@@ -0,0 +1,168 @@
+package benchmarks;
+
+import geometries.Intersectable;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Distributions of rays for the intersection benchmarks.
+ * The rays start on a sphere of radius 10 around the origin and are classified
+ * by the result of the kernel itself, so every kernel gets rays of the same kind.
+ */
+public enum RayDistribution {
+
+    /**
+     * Rays that hit the geometry, far from its silhouette
+     */
+    HIT,
+
+    /**
+     * Rays that miss the geometry, far from its silhouette
+     */
+    MISS,
+
+    /**
+     * Rays that pass at the silhouette of the geometry: a tiny rotation of the
+     * direction changes the result (tangent rays, edges of polygons, rays parallel to a plane)
+     */
+    GRAZING;
+
+    /**
+     * Angle of the rotation used for to detect the grazing rays
+     */
+    private static final double GRAZING_ANGLE = 1e-3;
+
+    /**
+     * Maximum number of random rays tried for to fill a distribution
+     */
+    private static final int MAX_ATTEMPTS = 50_000_000;
+
+    /**
+     * Generate the rays of this distribution for a geometry.
+     * The generation is deterministic for a given seed.
+     *
+     * @param geometry the geometry of the kernel
+     * @param count    number of rays
+     * @param seed     seed of the random generator
+     * @return array of rays
+     */
+    public Ray[] generate(Intersectable geometry, int count, long seed) {
+        Random random = new Random(seed);
+        Ray[] rays = new Ray[count];
+        int found = 0;
+        for (int attempt = 0; found < count && attempt < MAX_ATTEMPTS; ++attempt) {
+            Point p0 = randomPoint(random, 10);
+            Vector dir;
+            // half of the rays are aimed at the geometry, the others go anywhere
+            try {
+                dir = random.nextBoolean()
+                        ? randomPoint(random, 1.5 * random.nextDouble()).subtract(p0)
+                        : randomDirection(random);
+                if (this == GRAZING)
+                    dir = towardsSilhouette(geometry, p0, dir, random);
+                if (dir != null && classify(geometry, p0, dir) == this)
+                    rays[found++] = new Ray(p0, dir);
+            } catch (IllegalArgumentException ignore) {
+                // zero vector or ray on a degenerated position of the kernel
+            }
+        }
+        if (found < count)
+            throw new IllegalStateException("Cannot generate " + count + " " + this + " rays");
+        return rays;
+    }
+
+    /**
+     * Classify a ray by the result of the kernel
+     *
+     * @param geometry the geometry of the kernel
+     * @param p0       head of the ray
+     * @param dir      direction of the ray
+     * @return the distribution of the ray
+     */
+    private static RayDistribution classify(Intersectable geometry, Point p0, Vector dir) {
+        boolean hit = hits(geometry, new Ray(p0, dir));
+        Vector normalized = dir.normalize();
+        for (Vector axis : List.of(new Vector(1, 0, 0), new Vector(0, 1, 0), new Vector(0, 0, 1))) {
+            Vector side;
+            try {
+                side = normalized.crossProduct(axis).normalize().scale(GRAZING_ANGLE);
+            } catch (IllegalArgumentException e) {
+                continue; // direction along the axis
+            }
+            if (hits(geometry, new Ray(p0, normalized.add(side))) != hit
+                    || hits(geometry, new Ray(p0, normalized.subtract(side))) != hit)
+                return GRAZING;
+        }
+        return hit ? HIT : MISS;
+    }
+
+    /**
+     * Bisect between a hitting and a missing direction for to get a direction
+     * at the silhouette of the geometry
+     *
+     * @param geometry the geometry of the kernel
+     * @param p0       head of the ray
+     * @param dir      first direction
+     * @param random   random generator for the second direction
+     * @return direction at the silhouette or null if both directions have the same result
+     */
+    private static Vector towardsSilhouette(Intersectable geometry, Point p0, Vector dir, Random random) {
+        Vector other = randomDirection(random);
+        boolean hit = hits(geometry, new Ray(p0, dir));
+        if (hits(geometry, new Ray(p0, other)) == hit)
+            return null;
+        Vector a = dir.normalize();
+        Vector b = other.normalize();
+        for (int i = 0; i < 30; ++i) {
+            Vector middle = a.add(b).normalize();
+            if (hits(geometry, new Ray(p0, middle)) == hit)
+                a = middle;
+            else
+                b = middle;
+        }
+        return a;
+    }
+
+    /**
+     * Result of the kernel
+     *
+     * @param geometry the geometry of the kernel
+     * @param ray      the ray
+     * @return true if there is at least one intersection
+     */
+    private static boolean hits(Intersectable geometry, Ray ray) {
+        return geometry.findGeoIntsersections(ray) != null;
+    }
+
+    /**
+     * Random point on a sphere around the origin
+     *
+     * @param random random generator
+     * @param radius radius of the sphere
+     * @return the point
+     */
+    private static Point randomPoint(Random random, double radius) {
+        Vector v = randomDirection(random).scale(radius);
+        return new Point(v.getX(), v.getY(), v.getZ());
+    }
+
+    /**
+     * Random unit vector, uniformly distributed
+     *
+     * @param random random generator
+     * @return the vector
+     */
+    private static Vector randomDirection(Random random) {
+        while (true) {
+            try {
+                return new Vector(random.nextGaussian(), random.nextGaussian(), random.nextGaussian()).normalize();
+            } catch (IllegalArgumentException ignore) {
+                // zero vector, try again
+            }
+        }
+    }
+}
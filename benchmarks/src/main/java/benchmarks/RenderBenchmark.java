@@ -0,0 +1,218 @@
+package benchmarks;
+
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end render benchmark over the scenes of the rendering tests.
+ * Every scene is rendered at fixed resolutions, serially and/or with several threads, and each
+ * run records the wall time, the camera + secondary rays per second, the shadow rays per second
+ * and the peak heap. The results are printed and written in JSON for to compare commits.
+ * <p>
+ * Usage (after "mvn -B package"):
+ * <pre>
+ * java -cp target/benchmarks.jar benchmarks.RenderBenchmark [options]
+ *   --scenes REGEXP    scenes to render (default: all)
+ *   --sizes N,N...     resolutions of the square images (default: 500)
+ *   --threads N,N...   render threads, 0 for the serial render (default: 0)
+ *   --bvh              build the bounding volume hierarchy of the scenes
+ *   --warmup N         runs not measured before each configuration (default: 1)
+ *   --repeat N         measured runs of each configuration (default: 3)
+ *   --label TEXT       label of the results, e.g. the commit (default: empty)
+ *   --out FILE         JSON file of the results (default: render-results.json)
+ * </pre>
+ */
+public final class RenderBenchmark {
+
+    /**
+     * Result of one measured run
+     *
+     * @param scene       name of the scene
+     * @param size        resolution of the image (size x size)
+     * @param threads     number of render threads, 0 for serial
+     * @param bvh         true if the hierarchy was built
+     * @param wallNanos   time of the render
+     * @param rays        camera and secondary rays
+     * @param shadowRays  shadow rays
+     * @param peakHeap    peak of the heap during the render in bytes
+     */
+    private record Result(String scene, int size, int threads, boolean bvh,
+                          long wallNanos, long rays, long shadowRays, long peakHeap) {
+
+        /**
+         * Rays per second
+         *
+         * @param count number of rays
+         * @return the rate
+         */
+        double perSecond(long count) {
+            return count * 1e9 / wallNanos;
+        }
+    }
+
+    /**
+     * Private constructor to hide the public one
+     */
+    private RenderBenchmark() {
+    }
+
+    /**
+     * Run the benchmark
+     *
+     * @param args options (see the documentation of the class)
+     * @throws IOException if the results cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Pattern scenes = Pattern.compile(".*");
+        int[] sizes = {500};
+        int[] threads = {0};
+        boolean bvh = false;
+        int warmup = 1;
+        int repeat = 3;
+        String label = "";
+        Path out = Path.of("render-results.json");
+
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "--scenes" -> scenes = Pattern.compile(args[++i]);
+                case "--sizes" -> sizes = parseInts(args[++i]);
+                case "--threads" -> threads = parseInts(args[++i]);
+                case "--bvh" -> bvh = true;
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--repeat" -> repeat = Integer.parseInt(args[++i]);
+                case "--label" -> label = args[++i];
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-30s %6s %7s %4s %10s %14s %14s %10s%n",
+                "scene", "size", "threads", "bvh", "wall ms", "rays/s", "shadow rays/s", "peak MB");
+        for (var entry : BenchmarkScenes.SCENES.entrySet()) {
+            if (!scenes.matcher(entry.getKey()).matches())
+                continue;
+            for (int size : sizes) {
+                for (int threadsCount : threads) {
+                    for (int run = 0; run < warmup; ++run)
+                        render(entry.getKey(), entry.getValue(), size, threadsCount, bvh);
+                    for (int run = 0; run < repeat; ++run) {
+                        Result result = render(entry.getKey(), entry.getValue(), size, threadsCount, bvh);
+                        results.add(result);
+                        System.out.printf(Locale.ROOT, "%-30s %6d %7d %4s %10.1f %14.0f %14.0f %10.1f%n",
+                                result.scene(), result.size(), result.threads(), result.bvh() ? "yes" : "no",
+                                result.wallNanos() / 1e6, result.perSecond(result.rays()),
+                                result.perSecond(result.shadowRays()), result.peakHeap() / 1048576.0);
+                    }
+                }
+            }
+        }
+        writeJson(out, label, results);
+        System.out.println("Results written in " + out.toAbsolutePath());
+    }
+
+    /**
+     * Render a scene once
+     *
+     * @param name    name of the scene
+     * @param factory builder of the scene
+     * @param size    resolution of the image
+     * @param threads number of render threads
+     * @param bvh     true for to build the hierarchy
+     * @return the measures of the run
+     */
+    private static Result render(String name, Supplier<BenchmarkScene> factory, int size, int threads, boolean bvh) {
+        BenchmarkScene benchmarkScene = factory.get();
+        if (bvh)
+            benchmarkScene.scene().geometries.buildBVH();
+        CountingGeometries geometries = new CountingGeometries(benchmarkScene.scene().geometries);
+        benchmarkScene.scene().setGeometries(geometries);
+        benchmarkScene.camera()
+                .setImageWriter(new ImageWriter(name, size, size))
+                .setRayTracer(new RayTracerBasic(benchmarkScene.scene()))
+                .setMultithreading(threads);
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        benchmarkScene.camera().renderImage();
+        long wall = System.nanoTime() - start;
+
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Result(name, size, threads, bvh, wall, geometries.getRays(), geometries.getShadowRays(), peak);
+    }
+
+    /**
+     * Write the results in a JSON file
+     *
+     * @param file    the file
+     * @param label   label of the results
+     * @param results the measures
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeJson(Path file, String label, List<Result> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("{");
+            writer.printf(Locale.ROOT, "  \"label\": \"%s\",%n", escape(label));
+            writer.printf(Locale.ROOT, "  \"java\": \"%s\",%n", escape(System.getProperty("java.version")));
+            writer.printf(Locale.ROOT, "  \"processors\": %d,%n", Runtime.getRuntime().availableProcessors());
+            writer.printf(Locale.ROOT, "  \"maxHeap\": %d,%n", Runtime.getRuntime().maxMemory());
+            writer.println("  \"results\": [");
+            for (int i = 0; i < results.size(); ++i) {
+                Result r = results.get(i);
+                writer.printf(Locale.ROOT,
+                        "    {\"scene\": \"%s\", \"width\": %d, \"height\": %d, \"threads\": %d, \"bvh\": %b, "
+                                + "\"wallMs\": %.3f, \"rays\": %d, \"shadowRays\": %d, "
+                                + "\"raysPerSecond\": %.1f, \"shadowRaysPerSecond\": %.1f, \"peakHeap\": %d}%s%n",
+                        escape(r.scene()), r.size(), r.size(), r.threads(), r.bvh(),
+                        r.wallNanos() / 1e6, r.rays(), r.shadowRays(),
+                        r.perSecond(r.rays()), r.perSecond(r.shadowRays()), r.peakHeap(),
+                        i + 1 < results.size() ? "," : "");
+            }
+            writer.println("  ]");
+            writer.println("}");
+        }
+    }
+
+    /**
+     * Escape a string for JSON
+     *
+     * @param text the string
+     * @return the escaped string
+     */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Parse a list of integers separated by commas
+     *
+     * @param text the list
+     * @return the integers
+     */
+    private static int[] parseInts(String text) {
+        String[] parts = text.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; ++i)
+            values[i] = Integer.parseInt(parts[i].trim());
+        return values;
+    }
+}
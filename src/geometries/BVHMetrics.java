@@ -0,0 +1,18 @@
+package geometries;
+
+/**
+ * Metrics of the building of a Bounding Volume Hierarchy, for to compare the builders
+ *
+ * @param split     the choice of the splits
+ * @param bounded   number of geometries in the hierarchy
+ * @param unbounded number of unbounded geometries, tested by every ray
+ * @param nodes     number of nodes of the hierarchy
+ * @param leaves    number of leaves of the hierarchy
+ * @param maxDepth  depth of the deepest leaf
+ * @param cost      expected cost of a ray crossing the hierarchy with the surface area heuristic
+ *                  (in costs of the intersection of a geometry), lower is better
+ * @param buildTime time of the building in nanoseconds
+ */
+public record BVHMetrics(BVHSplit split, int bounded, int unbounded, int nodes, int leaves, int maxDepth,
+                         double cost, long buildTime) {
+}
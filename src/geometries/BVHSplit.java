@@ -0,0 +1,25 @@
+package geometries;
+
+/**
+ * Choice of the splits when a Bounding Volume Hierarchy is built
+ */
+public enum BVHSplit {
+    /**
+     * Split at the median of the centers of the boxes along the longest axis:
+     * a balanced tree, quickly built
+     */
+    MEDIAN,
+
+    /**
+     * Split with the surface area heuristic evaluated on bins along the 3 axes:
+     * a better tree when the sizes of the geometries are very different
+     * (e.g. large floors and walls with many small objects)
+     */
+    SAH,
+
+    /**
+     * Linear BVH: the geometries are sorted by the Morton code of their center and split
+     * where the codes cut the space in halves, the quickest build for very large meshes
+     */
+    MORTON
+}
@@ -0,0 +1,220 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * Class BoundingBox represents an axis-aligned box in 3D Cartesian coordinate system.
+ * It is used to reject rays that cannot hit a geometry before the real
+ * (and more expensive) intersection calculation is done.
+ */
+public class BoundingBox {
+
+    /**
+     * Tolerance added around the box, so that the rejection test never misses
+     * a hit on a flat geometry (a polygon lying in an axis plane has a box of zero thickness)
+     */
+    private static final double EPSILON = 1e-7;
+
+    /**
+     * Minimal coordinates of the box
+     */
+    final double minX, minY, minZ;
+
+    /**
+     * Maximal coordinates of the box
+     */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructor of BoundingBox with the 6 limits of the box
+     *
+     * @param minX minimal x
+     * @param minY minimal y
+     * @param minZ minimal z
+     * @param maxX maximal x
+     * @param maxY maximal y
+     * @param maxZ maximal z
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("The minimal corner of a box must be lower than the maximal corner");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructor of the smallest BoundingBox that contains all the points
+     *
+     * @param points the points inside the box
+     */
+    public BoundingBox(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A box needs at least one point");
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY, z1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY, z2 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x1 = Math.min(x1, p.getX());
+            y1 = Math.min(y1, p.getY());
+            z1 = Math.min(z1, p.getZ());
+            x2 = Math.max(x2, p.getX());
+            y2 = Math.max(y2, p.getY());
+            z2 = Math.max(z2, p.getZ());
+        }
+        minX = x1;
+        minY = y1;
+        minZ = z1;
+        maxX = x2;
+        maxY = y2;
+        maxZ = z2;
+    }
+
+    /**
+     * Getter for the minimal corner of the box
+     *
+     * @return minimal point
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * Getter for the maximal corner of the box
+     *
+     * @return maximal point
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Calculate the smallest box containing this box and another one
+     *
+     * @param other the second box
+     * @return new box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Center of the box on one axis
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return the middle of the box on this axis
+     */
+    public double getCenter(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Axis along which the box is the longest
+     *
+     * @return 0 for x, 1 for y and 2 for z
+     */
+    public int getLongestAxis() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        if (dx >= dy && dx >= dz)
+            return 0;
+        return dy >= dz ? 1 : 2;
+    }
+
+    /**
+     * Slab test between the ray and the box: the ray is cut by the 3 pairs of
+     * parallel planes of the box and it hits the box if and only if the 3 parametric
+     * intervals overlap in front of the ray head and before maxDistance.
+     * The test uses the inverse direction kept by the ray, so it costs only
+     * multiplications and comparisons.
+     *
+     * @param ray         the ray to test
+     * @param maxDistance the maximum distance of an interesting hit
+     * @return true if the ray may hit something inside the box
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return intersects(minX, minY, minZ, maxX, maxY, maxZ, ray, maxDistance);
+    }
+
+    /**
+     * Slab test between a ray and a box given by its limits, for the structures that keep
+     * their boxes in arrays of coordinates instead of BoundingBox objects
+     *
+     * @param minX        minimal x of the box
+     * @param minY        minimal y of the box
+     * @param minZ        minimal z of the box
+     * @param maxX        maximal x of the box
+     * @param maxY        maximal y of the box
+     * @param maxZ        maximal z of the box
+     * @param ray         the ray to test
+     * @param maxDistance the maximum distance of an interesting hit
+     * @return true if the ray may hit something inside the box
+     */
+    static boolean intersects(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                              Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        // x slab
+        double t1, t2;
+        double inv = ray.getInvDirX();
+        double o = p0.getX();
+        if (Double.isInfinite(inv)) { // the ray is parallel to the slab
+            if (o < minX - EPSILON || o > maxX + EPSILON) return false;
+        } else {
+            t1 = (minX - EPSILON - o) * inv;
+            t2 = (maxX + EPSILON - o) * inv;
+            if (inv < 0) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return false;
+        }
+
+        // y slab
+        inv = ray.getInvDirY();
+        o = p0.getY();
+        if (Double.isInfinite(inv)) {
+            if (o < minY - EPSILON || o > maxY + EPSILON) return false;
+        } else {
+            t1 = (minY - EPSILON - o) * inv;
+            t2 = (maxY + EPSILON - o) * inv;
+            if (inv < 0) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return false;
+        }
+
+        // z slab
+        inv = ray.getInvDirZ();
+        o = p0.getZ();
+        if (Double.isInfinite(inv)) {
+            return o >= minZ - EPSILON && o <= maxZ + EPSILON;
+        }
+        t1 = (minZ - EPSILON - o) * inv;
+        t2 = (maxZ + EPSILON - o) * inv;
+        if (inv < 0) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        return tNear <= tFar;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
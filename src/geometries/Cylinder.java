@@ -17,6 +17,10 @@ public class Cylinder extends Tube {
      */
     private final double height;
 
+    /**
+     * Box containing the cylinder with its 2 bases
+     */
+    private final BoundingBox box;
 
     /**
      * Constructor of Cylinder with 1 parameter and super from Tube
@@ -26,6 +30,22 @@ public class Cylinder extends Tube {
     public Cylinder(double radius, Ray axisRay, double height) {
         super(axisRay, radius);
         this.height = height;
+
+        // The base of the cylinder is a disk, its extent along each axis
+        // is radius * sin(angle between the axis and the cylinder direction)
+        Point p0 = axisRay.getP0();
+        Vector dir = axisRay.getDir();
+        Point p1 = p0.add(dir.scale(height));
+        double ex = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        this.box = new BoundingBox(
+                Math.min(p0.getX(), p1.getX()) - ex,
+                Math.min(p0.getY(), p1.getY()) - ey,
+                Math.min(p0.getZ(), p1.getZ()) - ez,
+                Math.max(p0.getX(), p1.getX()) + ex,
+                Math.max(p0.getY(), p1.getY()) + ey,
+                Math.max(p0.getZ(), p1.getZ()) + ez);
     }
 
     /**
@@ -37,6 +57,16 @@ public class Cylinder extends Tube {
         return height;
     }
 
+    /**
+     * Getter for the box of the cylinder: unlike the infinite tube, a cylinder is bounded
+     *
+     * @return box containing the cylinder
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
     /**
      * Use of the function getNormal of the interface Geometry
      *
@@ -0,0 +1,790 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Bounding Volume Hierarchy (BVH) stored in arrays of primitives instead of node objects.
+ * The hierarchy is built over boxes given by their coordinates, and it knows the primitives
+ * only by their index, so the same structure is used for the geometries of a collection
+ * and for the triangles of a mesh.
+ * <ul>
+ * <li>the boxes of the nodes are in a double array: minX, minY, minZ, maxX, maxY, maxZ of the node i at 6i...6i+5</li>
+ * <li>the links of the nodes are in an int array: for the node i, at 2i and 2i+1,
+ * the index of the right child and 0 for an inner node,
+ * the index of the first primitive (in leaf order) and the number of primitives for a leaf</li>
+ * </ul>
+ * The nodes are stored in depth-first order, so the left child of an inner node i is i + 1
+ * and a traversal reads the arrays mostly forward.
+ * The traversals use a {@link Stack} of node indices, without any allocation.
+ * <p>
+ * The build can be parallel: the subtrees of more than {@link #PARALLEL_THRESHOLD} primitives
+ * are built by fork/join tasks, all in the same arrays at places fixed before the tasks are forked,
+ * and the nodes are then moved to consecutive places. The splits depend only on the primitives
+ * of the subtree, so the parallel build gives exactly the same hierarchy as the serial one.
+ */
+final class FlatBVH {
+
+    /**
+     * Number of bins along each axis for the evaluation of the splits with the surface area heuristic
+     */
+    private static final int BINS = 16;
+
+    /**
+     * Cost of the test of the box of a node, relatively to the intersection of a primitive
+     */
+    private static final double TRAVERSAL_COST = 1;
+
+    /**
+     * Cost of the intersection of a primitive
+     */
+    private static final double INTERSECTION_COST = 1;
+
+    /**
+     * Minimal number of primitives of a subtree built by its own task in a parallel build
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Number of bits of each coordinate in a Morton code
+     */
+    private static final int MORTON_BITS = 10;
+
+    /**
+     * Boxes of the nodes
+     */
+    private double[] nodeBounds;
+
+    /**
+     * Links of the nodes
+     */
+    private int[] nodeData;
+
+    /**
+     * Number of nodes
+     */
+    private int nodesCount;
+
+    /**
+     * The primitives in the order of the leaves: index of the primitive at each place
+     */
+    private final int[] order;
+
+    /**
+     * Maximal number of primitives in a leaf
+     */
+    private final int maxLeafSize;
+
+    /**
+     * The choice of the splits
+     */
+    private final BVHSplit split;
+
+    /**
+     * Number of leaves
+     */
+    private int leavesCount;
+
+    /**
+     * Depth of the deepest leaf (the root has depth 0)
+     */
+    private int maxDepth;
+
+    /**
+     * True for a parallel build
+     */
+    private final boolean parallel;
+
+    /**
+     * Boxes of the primitives, during the build
+     */
+    private double[] bounds;
+
+    /**
+     * Centers of the boxes of the primitives, during the build
+     */
+    private double[] centers;
+
+    /**
+     * Morton codes of the primitives in the order of the leaves, during a build with {@link BVHSplit#MORTON}
+     */
+    private int[] codes;
+
+    /**
+     * Constructor of FlatBVH: build the hierarchy over the boxes of the primitives
+     * with the splits at the median of the centers, on one thread
+     *
+     * @param bounds      box of each primitive: minX, minY, minZ, maxX, maxY, maxZ of the primitive i at 6i...6i+5
+     * @param maxLeafSize maximal number of primitives in a leaf
+     */
+    FlatBVH(double[] bounds, int maxLeafSize) {
+        this(bounds, maxLeafSize, BVHSplit.MEDIAN, false);
+    }
+
+    /**
+     * Constructor of FlatBVH: build the hierarchy over the boxes of the primitives
+     *
+     * @param bounds      box of each primitive: minX, minY, minZ, maxX, maxY, maxZ of the primitive i at 6i...6i+5
+     * @param maxLeafSize maximal number of primitives in a leaf
+     * @param split       the choice of the splits
+     * @param parallel    true for to build the large subtrees in parallel (in the common fork/join pool)
+     */
+    FlatBVH(double[] bounds, int maxLeafSize, BVHSplit split, boolean parallel) {
+        this.maxLeafSize = maxLeafSize;
+        this.split = split;
+        this.parallel = parallel;
+        this.bounds = bounds;
+        int count = bounds.length / 6;
+
+        centers = new double[3 * count];
+        IntStream primitives = IntStream.range(0, count);
+        (parallel ? primitives.parallel() : primitives).forEach(i -> {
+            for (int axis = 0; axis < 3; ++axis)
+                centers[3 * i + axis] = (bounds[6 * i + axis] + bounds[6 * i + 3 + axis]) / 2;
+        });
+
+        order = new int[count];
+        if (split == BVHSplit.MORTON)
+            sortMorton();
+        else
+            for (int i = 0; i < count; ++i)
+                order[i] = i;
+
+        // a binary tree with leaves of at least one primitive has less than 2 * primitives nodes
+        int capacity = Math.max(1, 2 * count - 1);
+        nodeBounds = new double[6 * capacity];
+        nodeData = new int[2 * capacity];
+        if (parallel)
+            ForkJoinPool.commonPool().invoke(new BuildTask(0, 0, count));
+        else
+            buildNode(0, 0, count);
+        compact();
+        nodeBounds = Arrays.copyOf(nodeBounds, 6 * nodesCount);
+        nodeData = Arrays.copyOf(nodeData, 2 * nodesCount);
+
+        this.bounds = null;
+        centers = null;
+        codes = null;
+    }
+
+    /**
+     * Sort the primitives by the Morton code of their center (the index of the cell of the center
+     * on a grid over the box of the centers, with the bits of the 3 coordinates interleaved),
+     * so the primitives close in space are close in the order.
+     * The primitives with the same code stay in their order, for a deterministic build.
+     */
+    private void sortMorton() {
+        int count = order.length;
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < count; ++i)
+            for (int axis = 0; axis < 3; ++axis) {
+                min[axis] = Math.min(min[axis], centers[3 * i + axis]);
+                max[axis] = Math.max(max[axis], centers[3 * i + axis]);
+            }
+
+        // code in the high bits and index in the low bits: the sort by key is a stable sort by code
+        long[] keys = new long[count];
+        int cells = 1 << MORTON_BITS;
+        IntStream primitives = IntStream.range(0, count);
+        (parallel ? primitives.parallel() : primitives).forEach(i -> {
+            int code = 0;
+            for (int axis = 0; axis < 3; ++axis) {
+                double extent = max[axis] - min[axis];
+                int cell = extent == 0 ? 0
+                        : Math.min(cells - 1, (int) (cells * (centers[3 * i + axis] - min[axis]) / extent));
+                for (int bit = 0; bit < MORTON_BITS; ++bit)
+                    code |= ((cell >> bit) & 1) << (3 * bit + 2 - axis);
+            }
+            keys[i] = (long) code << 32 | i;
+        });
+        if (parallel)
+            Arrays.parallelSort(keys);
+        else
+            Arrays.sort(keys);
+
+        codes = new int[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = (int) keys[i];
+            codes[i] = (int) (keys[i] >>> 32);
+        }
+    }
+
+    /**
+     * Split of the primitives order[from..to) of a node
+     *
+     * @param nodeBox   box of the primitives of the node
+     * @param centerBox box of the centers of the primitives of the node
+     * @param axis      the longest axis of the box of the centers
+     * @param from      first primitive of the node (in order)
+     * @param to        index after the last primitive of the node
+     * @return the index of the first primitive of the right child, from if the node must be a leaf
+     */
+    private int split(double[] nodeBox, double[] centerBox, int axis, int from, int to) {
+        if (split == BVHSplit.SAH) {
+            int middle = partitionSAH(nodeBox, centerBox, from, to);
+            if (middle >= 0)
+                return middle;
+            if (to - from <= maxLeafSize)
+                return from;
+        } else if (split == BVHSplit.MORTON)
+            return splitMorton(from, to);
+
+        int middle = (from + to) >>> 1;
+        select(centers, axis, from, to - 1, middle);
+        return middle;
+    }
+
+    /**
+     * Split of sorted Morton codes: the primitives are already in order, the right child begins
+     * at the first code with the highest bit that differs between the first and the last codes
+     * (the half of the space of the node is cut)
+     *
+     * @param from first primitive of the node (in order)
+     * @param to   index after the last primitive of the node
+     * @return the index of the first primitive of the right child
+     */
+    private int splitMorton(int from, int to) {
+        int first = codes[from];
+        int last = codes[to - 1];
+        if (first == last)
+            return (from + to) >>> 1;
+
+        int bit = Integer.highestOneBit(first ^ last);
+        int low = from + 1;
+        int high = to - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ((codes[middle] & bit) == 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Build recursively a node of the hierarchy over the primitives order[from..to).
+     * The subtree of the node is given 2 (to - from) - 1 places from the place of the node, enough for
+     * any subtree of these primitives: the left child is just after the node and the right child
+     * after the places of the left subtree, so the 2 subtrees can be built at the same time by
+     * different tasks in the same arrays. The places not used are removed by {@link #compact()}.
+     *
+     * @param node place of the node
+     * @param from first primitive of the node (in order)
+     * @param to   index after the last primitive of the node
+     */
+    private void buildNode(int node, int from, int to) {
+        double[] nodeBox = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] centerBox = nodeBox.clone();
+        for (int i = from; i < to; ++i) {
+            int primitive = order[i];
+            for (int axis = 0; axis < 3; ++axis) {
+                nodeBox[axis] = Math.min(nodeBox[axis], bounds[6 * primitive + axis]);
+                nodeBox[axis + 3] = Math.max(nodeBox[axis + 3], bounds[6 * primitive + 3 + axis]);
+                centerBox[axis] = Math.min(centerBox[axis], centers[3 * primitive + axis]);
+                centerBox[axis + 3] = Math.max(centerBox[axis + 3], centers[3 * primitive + axis]);
+            }
+        }
+        System.arraycopy(nodeBox, 0, nodeBounds, 6 * node, 6);
+
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (centerBox[a + 3] - centerBox[a] > centerBox[axis + 3] - centerBox[axis])
+                axis = a;
+
+        // leaf: all the centers at the same place, or few primitives
+        // (the surface area heuristic may still find a split cheaper than the leaf)
+        int middle = centerBox[axis + 3] - centerBox[axis] == 0 || to - from <= maxLeafSize && split != BVHSplit.SAH
+                ? from : split(nodeBox, centerBox, axis, from, to);
+        if (middle == from) {
+            nodeData[2 * node] = from;
+            nodeData[2 * node + 1] = to - from;
+            return;
+        }
+
+        int right = node + 2 * (middle - from);
+        nodeData[2 * node] = right;
+        nodeData[2 * node + 1] = 0;
+        if (parallel && to - from > PARALLEL_THRESHOLD)
+            ForkJoinTask.invokeAll(new BuildTask(node + 1, from, middle), new BuildTask(right, middle, to));
+        else {
+            buildNode(node + 1, from, middle);
+            buildNode(right, middle, to);
+        }
+    }
+
+    /**
+     * Move the nodes built by {@link #buildNode} to consecutive places, and count the nodes and the leaves.
+     * The nodes are read in depth-first order, which is the order of their places, so each node moves
+     * to a place before its own which is free or already read; the links to the right children are
+     * updated when the right children are moved.
+     */
+    private void compact() {
+        // for each inner node whose right child isn't moved yet: its new place, the place of the right child
+        // and the depth of the right child
+        Stack pending = new Stack();
+        int node = 0;
+        int depth = 0;
+        for (int place = 0; ; ++place) {
+            System.arraycopy(nodeBounds, 6 * node, nodeBounds, 6 * place, 6);
+            int link = nodeData[2 * node];
+            int primitives = nodeData[2 * node + 1];
+            nodeData[2 * place] = link;
+            nodeData[2 * place + 1] = primitives;
+            if (primitives == 0) {
+                pending.push(place);
+                pending.push(link);
+                pending.push(depth + 1);
+                ++node;
+                ++depth;
+                continue;
+            }
+
+            ++leavesCount;
+            maxDepth = Math.max(maxDepth, depth);
+            if (pending.size == 0) {
+                nodesCount = place + 1;
+                return;
+            }
+            depth = pending.pop();
+            node = pending.pop();
+            nodeData[2 * pending.pop()] = place + 1;
+        }
+    }
+
+    /**
+     * Task of the build: builds the subtree of the primitives order[from..to) at its place
+     */
+    @SuppressWarnings("serial")
+    private final class BuildTask extends RecursiveAction {
+
+        /**
+         * Place of the root of the subtree
+         */
+        private final int node;
+
+        /**
+         * First primitive of the subtree (in order)
+         */
+        private final int from;
+
+        /**
+         * Index after the last primitive of the subtree
+         */
+        private final int to;
+
+        /**
+         * Constructor of BuildTask
+         *
+         * @param node place of the root of the subtree
+         * @param from first primitive of the subtree (in order)
+         * @param to   index after the last primitive of the subtree
+         */
+        private BuildTask(int node, int from, int to) {
+            this.node = node;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            buildNode(node, from, to);
+        }
+    }
+
+    /**
+     * Surface area heuristic: the primitives order[from..to) are put in bins along each axis
+     * by their center, and the split between 2 bins is chosen for the smallest expected cost of a ray:
+     * the number of primitives of each side weighted by the area of the box of the side
+     * (the probability of a ray crossing the box of the node to cross the box of the side).
+     * The primitives are then partitioned at the best split, unless the node is small enough for a leaf
+     * and the leaf is cheaper: a split costs the test of the box of the node, and the intersection of
+     * the primitives of each side weighted by the area of its box relatively to the area of the node.
+     *
+     * @param nodeBox   box of the primitives of the node
+     * @param centerBox box of the centers of the primitives of the node
+     * @param from      first primitive of the node (in order)
+     * @param to        index after the last primitive of the node
+     * @return the index of the first primitive of the right side, from if the node must be a leaf,
+     * -1 if no split separates the primitives
+     */
+    private int partitionSAH(double[] nodeBox, double[] centerBox, int from, int to) {
+        int[] counts = new int[BINS];
+        double[] binBounds = new double[6 * BINS];
+        double[] rightAreas = new double[BINS];
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestSplit = 0;
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = centerBox[axis];
+            double extent = centerBox[axis + 3] - min;
+            if (extent == 0)
+                continue;
+
+            Arrays.fill(counts, 0);
+            for (int b = 0; b < BINS; ++b)
+                emptyBox(binBounds, 6 * b);
+            for (int i = from; i < to; ++i) {
+                int primitive = order[i];
+                int b = bin(centers[3 * primitive + axis], min, extent);
+                ++counts[b];
+                unionBox(binBounds, 6 * b, bounds, 6 * primitive);
+            }
+
+            // areas of the right sides, from the last bin
+            double[] box = new double[6];
+            emptyBox(box, 0);
+            for (int b = BINS - 1; b > 0; --b) {
+                unionBox(box, 0, binBounds, 6 * b);
+                rightAreas[b] = area(box);
+            }
+
+            // cost of each split, the left side growing from the first bin
+            emptyBox(box, 0);
+            int leftCount = 0;
+            for (int b = 1; b < BINS; ++b) {
+                unionBox(box, 0, binBounds, 6 * (b - 1));
+                leftCount += counts[b - 1];
+                int rightCount = to - from - leftCount;
+                if (leftCount == 0 || rightCount == 0)
+                    continue;
+                double cost = leftCount * area(box) + rightCount * rightAreas[b];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = b;
+                }
+            }
+        }
+        if (bestAxis < 0)
+            return -1;
+
+        // a flat box of the node gives the same weight to the sides (as in getCost)
+        double nodeArea = area(nodeBox);
+        double splitCost = TRAVERSAL_COST + INTERSECTION_COST
+                * (nodeArea == 0 ? to - from : bestCost / nodeArea);
+        if (to - from <= maxLeafSize && splitCost >= INTERSECTION_COST * (to - from))
+            return from;
+
+        double min = centerBox[bestAxis];
+        double extent = centerBox[bestAxis + 3] - min;
+        int i = from;
+        int j = to - 1;
+        while (i <= j) {
+            if (bin(centers[3 * order[i] + bestAxis], min, extent) < bestSplit)
+                ++i;
+            else {
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+                --j;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Bin of a center along an axis
+     *
+     * @param center the coordinate of the center
+     * @param min    the minimal coordinate of the centers
+     * @param extent the extent of the centers
+     * @return the index of the bin
+     */
+    private static int bin(double center, double min, double extent) {
+        return Math.min(BINS - 1, (int) (BINS * (center - min) / extent));
+    }
+
+    /**
+     * Set a box to the empty box (infinite minimum and maximum)
+     *
+     * @param boxes  array of boxes
+     * @param offset index of the box in the array
+     */
+    private static void emptyBox(double[] boxes, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            boxes[offset + axis] = Double.POSITIVE_INFINITY;
+            boxes[offset + 3 + axis] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Extend a box with another one
+     *
+     * @param boxes       array of the box extended
+     * @param offset      index of the box extended
+     * @param other       array of the other box
+     * @param otherOffset index of the other box
+     */
+    private static void unionBox(double[] boxes, int offset, double[] other, int otherOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            boxes[offset + axis] = Math.min(boxes[offset + axis], other[otherOffset + axis]);
+            boxes[offset + 3 + axis] = Math.max(boxes[offset + 3 + axis], other[otherOffset + 3 + axis]);
+        }
+    }
+
+    /**
+     * Surface area of a box
+     *
+     * @param box the box (minX, minY, minZ, maxX, maxY, maxZ), 0 if it is empty
+     * @return the area
+     */
+    private static double area(double[] box) {
+        return area(box, 0);
+    }
+
+    /**
+     * Surface area of a box in an array of boxes
+     *
+     * @param boxes  array of boxes
+     * @param offset index of the box in the array
+     * @return the area, 0 for an empty box
+     */
+    private static double area(double[] boxes, int offset) {
+        double dx = boxes[offset + 3] - boxes[offset];
+        double dy = boxes[offset + 4] - boxes[offset + 1];
+        double dz = boxes[offset + 5] - boxes[offset + 2];
+        if (dx < 0 || dy < 0 || dz < 0)
+            return 0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Quickselect: reorder order[from..to] so that the primitive at k has the k-th center along the axis,
+     * the primitives before have smaller centers and the primitives after have bigger centers
+     *
+     * @param centers center of the box of each primitive
+     * @param axis    the axis of the split
+     * @param from    first index (included)
+     * @param to      last index (included)
+     * @param k       the index of the median
+     */
+    private void select(double[] centers, int axis, int from, int to, int k) {
+        while (from < to) {
+            double pivot = centers[3 * order[(from + to) >>> 1] + axis];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (centers[3 * order[i] + axis] < pivot) ++i;
+                while (centers[3 * order[j] + axis] > pivot) --j;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    ++i;
+                    --j;
+                }
+            }
+            if (k <= j)
+                to = j;
+            else if (k >= i)
+                from = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Getter for the order of the leaves
+     *
+     * @return the index of the primitive at each place of the leaves (not copied)
+     */
+    int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Getter for the number of nodes
+     *
+     * @return number of nodes
+     */
+    int getNodesCount() {
+        return nodesCount;
+    }
+
+    /**
+     * Getter for the number of leaves
+     *
+     * @return number of leaves
+     */
+    int getLeavesCount() {
+        return leavesCount;
+    }
+
+    /**
+     * Getter for the depth of the deepest leaf
+     *
+     * @return the maximal depth (0 if the root is a leaf)
+     */
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Expected cost of a ray crossing the box of the root, with the surface area heuristic:
+     * the cost of each node (test of the box or intersection of the primitives of a leaf)
+     * weighted by the area of its box relatively to the area of the root
+     *
+     * @return the cost (in costs of the intersection of a primitive)
+     */
+    double getCost() {
+        double rootArea = area(nodeBounds, 0);
+        double cost = 0;
+        for (int node = 0; node < nodesCount; ++node) {
+            // a flat root (e.g. a single polygon) gives the same weight to all the nodes
+            double weight = rootArea == 0 ? 1 : area(nodeBounds, 6 * node) / rootArea;
+            int count = nodeData[2 * node + 1];
+            cost += weight * (count == 0 ? TRAVERSAL_COST : count * INTERSECTION_COST);
+        }
+        return cost;
+    }
+
+    /**
+     * Box containing all the primitives (box of the root)
+     *
+     * @return the box
+     */
+    BoundingBox getBoundingBox() {
+        return new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    /**
+     * Test of the box of a node
+     *
+     * @param node        index of the node
+     * @param ray         the ray
+     * @param maxDistance the maximum distance of an interesting hit
+     * @return true if the ray may hit a primitive of the node
+     */
+    boolean intersects(int node, Ray ray, double maxDistance) {
+        int i = 6 * node;
+        return BoundingBox.intersects(nodeBounds[i], nodeBounds[i + 1], nodeBounds[i + 2],
+                nodeBounds[i + 3], nodeBounds[i + 4], nodeBounds[i + 5], ray, maxDistance);
+    }
+
+    /**
+     * Test of the box of a node with a point (with a tolerance)
+     *
+     * @param node    index of the node
+     * @param x       x of the point
+     * @param y       y of the point
+     * @param z       z of the point
+     * @param epsilon the tolerance
+     * @return true if the point may be on a primitive of the node
+     */
+    boolean contains(int node, double x, double y, double z, double epsilon) {
+        int i = 6 * node;
+        return x >= nodeBounds[i] - epsilon && y >= nodeBounds[i + 1] - epsilon && z >= nodeBounds[i + 2] - epsilon
+                && x <= nodeBounds[i + 3] + epsilon && y <= nodeBounds[i + 4] + epsilon
+                && z <= nodeBounds[i + 5] + epsilon;
+    }
+
+    /**
+     * Number of primitives of a node
+     *
+     * @param node index of the node
+     * @return the number of primitives of a leaf, 0 for an inner node
+     */
+    int count(int node) {
+        return nodeData[2 * node + 1];
+    }
+
+    /**
+     * First primitive of a leaf
+     *
+     * @param node index of the leaf
+     * @return place of its first primitive in the order of the leaves
+     */
+    int first(int node) {
+        return nodeData[2 * node];
+    }
+
+    /**
+     * Right child of an inner node (the left child is node + 1)
+     *
+     * @param node index of the inner node
+     * @return index of the right child
+     */
+    int right(int node) {
+        return nodeData[2 * node];
+    }
+
+    /**
+     * Push the children of an inner node on the stack, the left child on the top
+     *
+     * @param node  index of the inner node
+     * @param stack the stack of the traversal
+     */
+    void pushChildren(int node, Stack stack) {
+        stack.push(nodeData[2 * node]);
+        stack.push(node + 1);
+    }
+
+    /**
+     * Stack of node indices for the traversals, one for each thread.
+     * The traversals can be nested (a leaf of a collection may be a mesh with its own hierarchy):
+     * each traversal keeps the size of the stack at its beginning and stops when the stack
+     * is back to this size, so it never reads the nodes of the traversal that called it.
+     */
+    static final class Stack {
+
+        /**
+         * The stacks of the threads
+         */
+        private static final ThreadLocal<Stack> STACKS = ThreadLocal.withInitial(Stack::new);
+
+        /**
+         * The node indices
+         */
+        private int[] nodes = new int[64];
+
+        /**
+         * Number of node indices in the stack
+         */
+        int size = 0;
+
+        /**
+         * Private constructor, the stacks are given by {@link #get()}
+         */
+        private Stack() {
+        }
+
+        /**
+         * The stack of the current thread
+         *
+         * @return the stack
+         */
+        static Stack get() {
+            return STACKS.get();
+        }
+
+        /**
+         * Push a node index
+         *
+         * @param node the node index
+         */
+        void push(int node) {
+            if (size == nodes.length)
+                nodes = Arrays.copyOf(nodes, 2 * size);
+            nodes[size++] = node;
+        }
+
+        /**
+         * Pop a node index
+         *
+         * @return the node index at the top
+         */
+        int pop() {
+            return nodes[--size];
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Ray;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -19,6 +19,36 @@ public class Geometries extends Intersectable {
      */
     private final List<Intersectable> geometries;
 
+    /**
+     * Box containing all the geometries, null if one of them is unbounded
+     */
+    private BoundingBox box = null;
+
+    /**
+     * True if at least one of the geometries is unbounded (e.g. a plane)
+     */
+    private boolean unbounded = false;
+
+    /**
+     * Maximal number of geometries in a leaf of the hierarchy
+     */
+    private static final int MAX_LEAF_SIZE = 2;
+
+    /**
+     * Hierarchy over the bounded geometries, null before {@link #buildBVH()}
+     */
+    private FlatBVH bvh = null;
+
+    /**
+     * The bounded geometries of the hierarchy in the order of its leaves
+     */
+    private Intersectable[] bvhGeometries = null;
+
+    /**
+     * Metrics of the last building of the hierarchy, null before {@link #buildBVH()}
+     */
+    private BVHMetrics bvhMetrics = null;
+
     /**
      * Default constructor that initialize the list intersectable to a LinkedList<>()
      */
@@ -33,7 +63,7 @@ public class Geometries extends Intersectable {
      */
     public Geometries(Intersectable... geometries) {
         this();
-        Collections.addAll(this.geometries, geometries);
+        add(geometries);
     }
 
     /**
@@ -42,13 +72,129 @@ public class Geometries extends Intersectable {
      * @param geometries all geometries for the scene
      */
     public void add(Intersectable... geometries) {
-        this.geometries.addAll(Arrays.asList(geometries));
+        for (Intersectable geometry : geometries) {
+            this.geometries.add(geometry);
+            updateBoundingBox(geometry);
+        }
+    }
+
+    /**
+     * Extend the box of the collection with the box of a new geometry
+     *
+     * @param geometry the geometry added to the collection
+     */
+    private void updateBoundingBox(Intersectable geometry) {
+        if (unbounded)
+            return;
+        BoundingBox geometryBox = geometry.getBoundingBox();
+        if (geometryBox == null) {
+            unbounded = true;
+            box = null;
+        } else
+            box = box == null ? geometryBox : box.union(geometryBox);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return unbounded ? null : box;
+    }
+
+    /**
+     * Replace the flat list of geometries by a Bounding Volume Hierarchy.
+     * The bounded geometries (nested collections are opened) are organized in a
+     * binary tree of boxes stored in arrays ({@link FlatBVH}), so a ray visits only
+     * the branches whose box it hits, and the unbounded geometries (e.g. planes)
+     * stay in the list and are always tested.
+     * The intersections found are the same as before the building.
+     * The splits are chosen with the surface area heuristic.
+     *
+     * @return this
+     */
+    public Geometries buildBVH() {
+        return buildBVH(BVHSplit.SAH);
+    }
+
+    /**
+     * Replace the flat list of geometries by a Bounding Volume Hierarchy as {@link #buildBVH()},
+     * with a choice of the splits.
+     * The large subtrees are built in parallel, and the hierarchy is the same for the same
+     * geometries in the same order.
+     *
+     * @param split the choice of the splits
+     * @return this
+     */
+    public Geometries buildBVH(BVHSplit split) {
+        long start = System.nanoTime();
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> infinite = new LinkedList<>();
+        collect(bounded, infinite);
+
+        geometries.clear();
+        geometries.addAll(infinite);
+        bvh = null;
+        bvhGeometries = null;
+        if (bounded.isEmpty()) {
+            bvhMetrics = new BVHMetrics(split, 0, infinite.size(), 0, 0, 0, 0, System.nanoTime() - start);
+            return this;
+        }
+
+        double[] bounds = new double[6 * bounded.size()];
+        for (int i = 0; i < bounded.size(); ++i) {
+            BoundingBox geometryBox = bounded.get(i).getBoundingBox();
+            bounds[6 * i] = geometryBox.minX;
+            bounds[6 * i + 1] = geometryBox.minY;
+            bounds[6 * i + 2] = geometryBox.minZ;
+            bounds[6 * i + 3] = geometryBox.maxX;
+            bounds[6 * i + 4] = geometryBox.maxY;
+            bounds[6 * i + 5] = geometryBox.maxZ;
+        }
+        bvh = new FlatBVH(bounds, MAX_LEAF_SIZE, split, true);
+
+        int[] order = bvh.getOrder();
+        bvhGeometries = new Intersectable[order.length];
+        for (int i = 0; i < order.length; ++i)
+            bvhGeometries[i] = bounded.get(order[i]);
+
+        bvhMetrics = new BVHMetrics(split, order.length, infinite.size(), bvh.getNodesCount(),
+                bvh.getLeavesCount(), bvh.getMaxDepth(), bvh.getCost(), System.nanoTime() - start);
+        return this;
+    }
+
+    /**
+     * Getter for the metrics of the last building of the hierarchy
+     *
+     * @return the metrics, null if the hierarchy was never built
+     */
+    public BVHMetrics getBVHMetrics() {
+        return bvhMetrics;
+    }
+
+    /**
+     * Dispatch recursively the geometries of the collection (and of its nested collections)
+     * between bounded and unbounded ones
+     *
+     * @param bounded   list for the geometries that have a bounding box
+     * @param infinite  list for the unbounded geometries
+     */
+    private void collect(List<Intersectable> bounded, List<Intersectable> infinite) {
+        for (Intersectable geometry : geometries) {
+            if (geometry instanceof Geometries nested)
+                nested.collect(bounded, infinite);
+            else if (geometry.getBoundingBox() == null)
+                infinite.add(geometry);
+            else
+                bounded.add(geometry);
+        }
+        // geometries of a hierarchy built before
+        if (bvhGeometries != null)
+            bounded.addAll(List.of(bvhGeometries));
     }
 
     /**
      * Use of the function findGeoIntsersectionsHelper from the interface Intersectable
      * We will iterate the List that contains several geometries and
      * for each geometry, we will call his findGeoIntsersections function.
+     * A geometry whose bounding box is missed by the ray is skipped.
      *
      * @param ray that allow us to know if there are intersections
      * @return list of intersections GeoPoints
@@ -59,11 +205,133 @@ public class Geometries extends Intersectable {
         List<GeoPoint> intersections = new LinkedList<>();
 
         for (Intersectable geometry : geometries) {
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            if (geometryBox != null && !geometryBox.intersects(ray, maxDistance))
+                continue;
             var temp = geometry.findGeoIntsersections(ray, maxDistance);
             if (temp != null)
                 intersections.addAll(temp);
         }
+        if (bvh == null)
+            return intersections;
+
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.intersects(node, ray, maxDistance))
+                continue;
+            int count = bvh.count(node);
+            if (count == 0) {
+                bvh.pushChildren(node, stack);
+                continue;
+            }
+            for (int i = bvh.first(node), end = i + count; i < end; ++i) {
+                var temp = bvhGeometries[i].findGeoIntsersections(ray, maxDistance);
+                if (temp != null)
+                    intersections.addAll(temp);
+            }
+        }
 
         return intersections;
     }
+
+    /**
+     * Use of the function findClosestGeoIntersectionHelper from the class Intersectable.
+     * The distance of the closest hit found so far is given to the next geometries as
+     * maximum distance, so the farther geometries don't create any GeoPoint
+     * and their box is rejected sooner.
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the closest intersection or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        GeoPoint closestPoint = null;
+        double distance = maxDistance;
+
+        for (Intersectable geometry : geometries) {
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            if (geometryBox != null && !geometryBox.intersects(ray, distance))
+                continue;
+            GeoPoint geoPoint = geometry.findClosestGeoIntersectionHelper(ray, distance);
+            // in case of equality the first geometry is kept
+            if (geoPoint != null && (closestPoint == null || geoPoint.t < closestPoint.t)) {
+                closestPoint = geoPoint;
+                distance = geoPoint.t;
+            }
+        }
+        if (bvh == null)
+            return closestPoint;
+
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.intersects(node, ray, distance))
+                continue;
+            int count = bvh.count(node);
+            if (count == 0) {
+                bvh.pushChildren(node, stack);
+                continue;
+            }
+            for (int i = bvh.first(node), end = i + count; i < end; ++i) {
+                GeoPoint geoPoint = bvhGeometries[i].findClosestGeoIntersectionHelper(ray, distance);
+                if (geoPoint != null && (closestPoint == null || geoPoint.t < closestPoint.t)) {
+                    closestPoint = geoPoint;
+                    distance = geoPoint.t;
+                }
+            }
+        }
+        return closestPoint;
+    }
+
+    /**
+     * Use of the function findTransparencyHelper from the class Intersectable.
+     * The geometries are visited until the ray is fully blocked.
+     *
+     * @param ray         from the point towards the light source
+     * @param maxDistance the distance of the light source
+     * @param ktr         transparency accumulated before this collection
+     * @param minK        under this value (for the 3 components) the ray is fully blocked
+     * @return the accumulated transparency, Double3.ZERO if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable geometry : geometries) {
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            if (geometryBox != null && !geometryBox.intersects(ray, maxDistance))
+                continue;
+            ktr = geometry.findTransparencyHelper(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return ktr;
+        }
+        if (bvh == null)
+            return ktr;
+
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.intersects(node, ray, maxDistance))
+                continue;
+            int count = bvh.count(node);
+            if (count == 0) {
+                bvh.pushChildren(node, stack);
+                continue;
+            }
+            for (int i = bvh.first(node), end = i + count; i < end; ++i) {
+                ktr = bvhGeometries[i].findTransparencyHelper(ray, maxDistance, ktr, minK);
+                if (ktr.lowerThan(minK)) {
+                    stack.size = bottom;
+                    return ktr;
+                }
+            }
+        }
+        return ktr;
+    }
 }
@@ -1,8 +1,10 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -67,4 +69,34 @@ public abstract class Geometry extends Intersectable {
      * @return the same vector with length = 1
      */
     public abstract Vector getNormal(Point point);
+
+    /**
+     * Normal at an intersection point.
+     * A geometry made of several primitives (e.g. a mesh) uses the index of the primitive
+     * kept by the GeoPoint, the other geometries need only the point.
+     *
+     * @param geoPoint the intersection point on this geometry
+     * @return the normal vector with length = 1
+     */
+    public Vector getNormal(GeoPoint geoPoint) {
+        return getNormal(geoPoint.point);
+    }
+
+    /**
+     * Use of the function findTransparencyHelper from the class Intersectable.
+     * For an opaque geometry any hit blocks the ray, so only the closest hit is searched
+     * and no product is calculated.
+     *
+     * @param ray         from the point towards the light source
+     * @param maxDistance the distance of the light source
+     * @param ktr         transparency accumulated before this geometry
+     * @param minK        under this value (for the 3 components) the ray is fully blocked
+     * @return the accumulated transparency, Double3.ZERO if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!material.getKt().lowerThan(minK))
+            return super.findTransparencyHelper(ray, maxDistance, ktr, minK);
+        return findClosestGeoIntersectionHelper(ray, maxDistance) == null ? ktr : Double3.ZERO;
+    }
 }
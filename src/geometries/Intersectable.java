@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
@@ -46,7 +47,55 @@ public abstract class Intersectable {
         return findGeoIntsersectionsHelper(ray, maxDistance);
     }
 
-    ;
+    /**
+     * Function findClosestGeoIntersection that returns only the intersection
+     * which is the closest to the head of the ray
+     *
+     * @param ray through the geometry
+     * @return the closest GeoPoint (with its distance t) or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Function findClosestGeoIntersection that use the function findClosestGeoIntersectionHelper()
+     *
+     * @param ray         through the geometry
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the closest GeoPoint (with its distance t) or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Function findClosestGeoIntersectionHelper() used by each geometry.
+     * A composite passes the distance of the closest hit found so far as maxDistance,
+     * so a geometry creates a GeoPoint only for a hit that is closer than all the previous ones.
+     * This default implementation picks the closest point of the list of intersections,
+     * the geometries override it for to avoid building the list.
+     *
+     * @param ray         through the geometry
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the closest GeoPoint (with its distance t) or null if there is no intersection
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntsersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return null;
+
+        GeoPoint closestPoint = null;
+        Point p0 = ray.getP0();
+        for (GeoPoint geoPoint : intersections) {
+            double distance = geoPoint.point.distance(p0);
+            if (closestPoint == null || distance < closestPoint.t) {
+                geoPoint.t = distance;
+                closestPoint = geoPoint;
+            }
+        }
+        return closestPoint;
+    }
 
     /**
      * Function findGeoIntsersectionsHelper() used by each geometry
@@ -56,6 +105,54 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntsersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * Occlusion query for shadow rays: product of the transparency coefficients kT of all
+     * the intersections between the head of the ray and maxDistance.
+     * The search stops at the first opaque blocker, so the list of all the occluders
+     * is never built.
+     *
+     * @param ray         from the point towards the light source
+     * @param maxDistance the distance of the light source
+     * @param minK        under this value (for the 3 components) the ray is fully blocked
+     * @return the accumulated transparency, Double3.ZERO if the ray is blocked
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE, minK);
+    }
+
+    /**
+     * Function findTransparencyHelper() used by each intersectable.
+     * This default implementation multiplies ktr by kT of the geometry of every intersection.
+     *
+     * @param ray         from the point towards the light source
+     * @param maxDistance the distance of the light source
+     * @param ktr         transparency accumulated before this intersectable
+     * @param minK        under this value (for the 3 components) the ray is fully blocked
+     * @return the accumulated transparency, Double3.ZERO if the ray is blocked
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntsersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return ktr;
+
+        for (GeoPoint geoPoint : intersections) {
+            ktr = ktr.product(geoPoint.geometry.getMaterial().getKt());
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * Getter for the axis-aligned box that contains the whole intersectable.
+     * By default, an intersectable is unbounded (e.g. infinite plane)
+     *
+     * @return the bounding box or null if the intersectable is unbounded
+     */
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     /**
      * Helper internal class (PDS)
      */
@@ -71,6 +168,17 @@ public abstract class Intersectable {
          */
         public Point point;
 
+        /**
+         * Field t: distance of the point from the head of the ray (NaN if unknown)
+         */
+        public double t = Double.NaN;
+
+        /**
+         * Field index: index of the primitive hit inside the geometry (e.g. triangle of a mesh),
+         * -1 for the simple geometries
+         */
+        public int index = -1;
+
         /**
          * Constructor of GeoPoint with 2 parameters
          *
@@ -82,6 +190,19 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructor of GeoPoint with 3 parameters
+         *
+         * @param geometry form
+         * @param point    intersection
+         * @param t        distance of the intersection from the head of the ray
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -0,0 +1,389 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Class Mesh: a surface made of triangles that share their vertices.
+ * Instead of one Triangle object per triangle, the mesh keeps:
+ * <ul>
+ * <li>the vertices in a flat array of coordinates (x, y, z of each vertex)</li>
+ * <li>the triangles in an index buffer (3 indices of vertices for each triangle)</li>
+ * <li>its own Bounding Volume Hierarchy over the triangles, in arrays too ({@link FlatBVH})</li>
+ * </ul>
+ * so a triangle costs 12 bytes plus its share of the vertices and of the hierarchy.
+ * All the triangles have the material and the emission of the mesh.
+ */
+public class Mesh extends Geometry {
+
+    /**
+     * Maximal number of triangles in a leaf of the hierarchy
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+
+    /**
+     * Tolerance for to find the triangle of a point
+     */
+    private static final double EPSILON = 1e-7;
+
+    /**
+     * Coordinates of the vertices: x, y, z of the vertex i at 3i, 3i+1, 3i+2
+     */
+    private final double[] vertices;
+
+    /**
+     * Indices of the vertices of the triangles: the triangle i is (3i, 3i+1, 3i+2).
+     * The triangles are sorted in the order of the leaves of the hierarchy.
+     */
+    private final int[] triangles;
+
+    /**
+     * Hierarchy over the triangles
+     */
+    private final FlatBVH bvh;
+
+    /**
+     * Box containing the whole mesh
+     */
+    private final BoundingBox box;
+
+    /**
+     * Constructor of Mesh with the vertex and index buffers.
+     * The arrays are kept by the mesh (not copied) and the order of the triangles
+     * in the index buffer is changed for the hierarchy.
+     *
+     * @param vertices  coordinates of the vertices (x, y, z for each vertex)
+     * @param triangles indices of the vertices of the triangles (3 for each triangle)
+     * @throws IllegalArgumentException if the buffers are empty, have a wrong size
+     *                                  or if an index is not the index of a vertex
+     */
+    public Mesh(double[] vertices, int[] triangles) {
+        this(vertices, triangles, BVHSplit.MEDIAN);
+    }
+
+    /**
+     * Constructor of Mesh with the vertex and index buffers and the choice of the splits
+     * of the hierarchy (e.g. {@link BVHSplit#MORTON} for the quickest build of a very large mesh).
+     * The large subtrees of the hierarchy are built in parallel.
+     *
+     * @param vertices  coordinates of the vertices (x, y, z for each vertex)
+     * @param triangles indices of the vertices of the triangles (3 for each triangle)
+     * @param split     the choice of the splits of the hierarchy
+     * @throws IllegalArgumentException if the buffers are empty, have a wrong size
+     *                                  or if an index is not the index of a vertex
+     */
+    public Mesh(double[] vertices, int[] triangles, BVHSplit split) {
+        if (vertices.length == 0 || vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertex buffer must contain 3 coordinates for each vertex");
+        if (triangles.length == 0 || triangles.length % 3 != 0)
+            throw new IllegalArgumentException("The index buffer must contain 3 indices for each triangle");
+        int verticesCount = vertices.length / 3;
+        for (int index : triangles)
+            if (index < 0 || index >= verticesCount)
+                throw new IllegalArgumentException("Index of vertex out of the vertex buffer: " + index);
+
+        this.vertices = vertices;
+        this.triangles = triangles;
+        bvh = buildHierarchy(split);
+        box = bvh.getBoundingBox();
+    }
+
+    /**
+     * Getter for the number of vertices
+     *
+     * @return number of vertices
+     */
+    public int getVerticesCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * Getter for the number of triangles
+     *
+     * @return number of triangles
+     */
+    public int getTrianglesCount() {
+        return triangles.length / 3;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    // ***************** Hierarchy ********************** //
+
+    /**
+     * Build the hierarchy over the triangles and sort the index buffer
+     * in the order of the leaves
+     *
+     * @param split the choice of the splits
+     * @return the hierarchy
+     */
+    private FlatBVH buildHierarchy(BVHSplit split) {
+        int count = triangles.length / 3;
+
+        // box of each triangle
+        double[] bounds = new double[6 * count];
+        for (int i = 0; i < count; ++i) {
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[3 * triangles[3 * i] + axis];
+                double b = vertices[3 * triangles[3 * i + 1] + axis];
+                double c = vertices[3 * triangles[3 * i + 2] + axis];
+                bounds[6 * i + axis] = Math.min(a, Math.min(b, c));
+                bounds[6 * i + 3 + axis] = Math.max(a, Math.max(b, c));
+            }
+        }
+        FlatBVH hierarchy = new FlatBVH(bounds, MAX_LEAF_SIZE, split, true);
+
+        // sort the triangles in the order of the leaves
+        int[] order = hierarchy.getOrder();
+        int[] sorted = new int[triangles.length];
+        for (int i = 0; i < count; ++i) {
+            sorted[3 * i] = triangles[3 * order[i]];
+            sorted[3 * i + 1] = triangles[3 * order[i] + 1];
+            sorted[3 * i + 2] = triangles[3 * order[i] + 2];
+        }
+        System.arraycopy(sorted, 0, triangles, 0, triangles.length);
+        return hierarchy;
+    }
+
+    // ***************** Intersections ********************** //
+
+    /**
+     * Intersection of the ray with one triangle of the mesh (Möller–Trumbore)
+     *
+     * @param triangle    index of the triangle
+     * @param ray         the ray
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the distance t of the hit or NaN if there is no intersection
+     */
+    private double intersectTriangle(int triangle, Ray ray, double maxDistance) {
+        int a = 3 * triangles[3 * triangle];
+        int b = 3 * triangles[3 * triangle + 1];
+        int c = 3 * triangles[3 * triangle + 2];
+        Point p = ray.getP0();
+        Vector v = ray.getDir();
+        return Triangle.intersect(p.getX(), p.getY(), p.getZ(), v.getX(), v.getY(), v.getZ(),
+                vertices[a], vertices[a + 1], vertices[a + 2],
+                vertices[b], vertices[b + 1], vertices[b + 2],
+                vertices[c], vertices[c + 1], vertices[c + 2],
+                maxDistance, null);
+    }
+
+    /**
+     * Use of the function findGeoIntsersectionsHelper from the class Intersectable
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return list of intersections GeoPoints or null if there are none
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntsersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = null;
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.intersects(node, ray, maxDistance))
+                continue;
+            int count = bvh.count(node);
+            if (count == 0) {
+                bvh.pushChildren(node, stack);
+                continue;
+            }
+            for (int triangle = bvh.first(node), end = triangle + count; triangle < end; ++triangle) {
+                double t = intersectTriangle(triangle, ray, maxDistance);
+                if (!Double.isNaN(t)) {
+                    if (intersections == null)
+                        intersections = new LinkedList<>();
+                    GeoPoint geoPoint = new GeoPoint(this, ray.getPoint(t), t);
+                    geoPoint.index = triangle;
+                    intersections.add(geoPoint);
+                }
+            }
+        }
+        return intersections;
+    }
+
+    /**
+     * Use of the function findClosestGeoIntersectionHelper from the class Intersectable.
+     * The distance of the closest hit found so far limits the nodes visited next,
+     * and a single GeoPoint is created at the end.
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the closest intersection or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        return findClosest(ray, maxDistance, false);
+    }
+
+    /**
+     * Use of the function findTransparencyHelper from the class Geometry.
+     * For an opaque mesh the traversal stops at the first triangle hit.
+     *
+     * @param ray         from the point towards the light source
+     * @param maxDistance the distance of the light source
+     * @param ktr         transparency accumulated before this mesh
+     * @param minK        under this value (for the 3 components) the ray is fully blocked
+     * @return the accumulated transparency, Double3.ZERO if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!getMaterial().getKt().lowerThan(minK))
+            return super.findTransparencyHelper(ray, maxDistance, ktr, minK);
+        return findClosest(ray, maxDistance, true) == null ? ktr : Double3.ZERO;
+    }
+
+    /**
+     * Traversal of the hierarchy for the closest hit or for any hit
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @param anyHit      true for to stop at the first hit found
+     * @return the closest intersection (or the first one found) or null
+     */
+    private GeoPoint findClosest(Ray ray, double maxDistance, boolean anyHit) {
+        int closestTriangle = -1;
+        double distance = maxDistance;
+
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.intersects(node, ray, distance))
+                continue;
+            int count = bvh.count(node);
+            if (count == 0) {
+                bvh.pushChildren(node, stack);
+                continue;
+            }
+            for (int triangle = bvh.first(node), end = triangle + count; triangle < end; ++triangle) {
+                double t = intersectTriangle(triangle, ray, distance);
+                // in case of equality the first triangle is kept
+                if (!Double.isNaN(t) && (closestTriangle < 0 || t < distance)) {
+                    closestTriangle = triangle;
+                    distance = t;
+                    if (anyHit) {
+                        stack.size = bottom;
+                        return new GeoPoint(this, ray.getPoint(t), t);
+                    }
+                }
+            }
+        }
+
+        if (closestTriangle < 0)
+            return null;
+        GeoPoint geoPoint = new GeoPoint(this, ray.getPoint(distance), distance);
+        geoPoint.index = closestTriangle;
+        return geoPoint;
+    }
+
+    // ***************** Normals ********************** //
+
+    /**
+     * Normal of a triangle of the mesh: normalize((p1 - p0) x (p2 - p0)), as for the Triangle
+     *
+     * @param triangle index of the triangle
+     * @return the normal
+     */
+    private Vector getNormal(int triangle) {
+        int a = 3 * triangles[3 * triangle];
+        int b = 3 * triangles[3 * triangle + 1];
+        int c = 3 * triangles[3 * triangle + 2];
+        Vector e1 = new Vector(vertices[b] - vertices[a], vertices[b + 1] - vertices[a + 1],
+                vertices[b + 2] - vertices[a + 2]);
+        Vector e2 = new Vector(vertices[c] - vertices[a], vertices[c + 1] - vertices[a + 1],
+                vertices[c + 2] - vertices[a + 2]);
+        return e1.crossProduct(e2).normalize();
+    }
+
+    /**
+     * Use of the function getNormal of the class Geometry with the triangle kept by the GeoPoint
+     *
+     * @param geoPoint the intersection point on this mesh
+     * @return the normal of the triangle hit
+     */
+    @Override
+    public Vector getNormal(GeoPoint geoPoint) {
+        return geoPoint.index < 0 ? getNormal(geoPoint.point) : getNormal(geoPoint.index);
+    }
+
+    /**
+     * Use of the function getNormal of the class Geometry.
+     * The triangle of the point is searched in the hierarchy.
+     *
+     * @param point that is the point on the geometry
+     * @return the normal of the triangle containing the point
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.contains(node, x, y, z, EPSILON))
+                continue;
+            int count = bvh.count(node);
+            if (count == 0) {
+                bvh.pushChildren(node, stack);
+                continue;
+            }
+            for (int triangle = bvh.first(node), end = triangle + count; triangle < end; ++triangle)
+                if (contains(triangle, x, y, z)) {
+                    stack.size = bottom;
+                    return getNormal(triangle);
+                }
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    /**
+     * Check that a point is on a triangle of the mesh (with a tolerance)
+     *
+     * @param triangle index of the triangle
+     * @param x        x of the point
+     * @param y        y of the point
+     * @param z        z of the point
+     * @return true if the point is on the triangle
+     */
+    private boolean contains(int triangle, double x, double y, double z) {
+        int a = 3 * triangles[3 * triangle];
+        int b = 3 * triangles[3 * triangle + 1];
+        int c = 3 * triangles[3 * triangle + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        double wx = x - vertices[a], wy = y - vertices[a + 1], wz = z - vertices[a + 2];
+
+        // distance from the plane of the triangle
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        double nLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (nLength == 0 || Math.abs(nx * wx + ny * wy + nz * wz) / nLength > EPSILON)
+            return false;
+
+        // barycentric coordinates of the point
+        double d00 = e1x * e1x + e1y * e1y + e1z * e1z;
+        double d01 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double d11 = e2x * e2x + e2y * e2y + e2z * e2z;
+        double d20 = wx * e1x + wy * e1y + wz * e1z;
+        double d21 = wx * e2x + wy * e2y + wz * e2z;
+        double denominator = d00 * d11 - d01 * d01;
+        double u = (d11 * d20 - d01 * d21) / denominator;
+        double v = (d00 * d21 - d01 * d20) / denominator;
+        return u >= -EPSILON && v >= -EPSILON && u + v <= 1 + EPSILON;
+    }
+}
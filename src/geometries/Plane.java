@@ -74,6 +74,16 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    /**
+     * An infinite plane has no bounding box, so it is tested by every ray
+     *
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     /**
      * Use of the function getNormal of the interface Geometry
      *
@@ -166,4 +176,60 @@ public class Plane extends Geometry {
 
         return List.of(new GeoPoint(this, point));
     }
+
+    /**
+     * Use of the function findClosestGeoIntersectionHelper from the class Intersectable.
+     * Same calculation as findGeoIntsersectionsHelper, with the coordinates only
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the intersection or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersectionDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : new GeoPoint(this, ray.getPoint(t), t);
+    }
+
+    /**
+     * Calculate the distance between the head of the ray and the plane, without creating any object
+     *
+     * @param ray         the ray crossing the plane
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the distance t or NaN if there is no intersection
+     */
+    double intersectionDistance(Ray ray, double maxDistance) {
+        Point P0 = ray.getP0();
+        Vector v = ray.getDir();
+
+        //denominator
+        double nv = alignZero(normal.getX() * v.getX() + normal.getY() * v.getY() + normal.getZ() * v.getZ());
+
+        // ray is lying in the plane axis
+        if (isZero(nv)) {
+            return Double.NaN;
+        }
+
+        //ray cannot start from the plane
+        if (q0.equals(P0)) {
+            return Double.NaN;
+        }
+
+        //numerator
+        double nP0Q0 = alignZero(normal.getX() * (q0.getX() - P0.getX())
+                + normal.getY() * (q0.getY() - P0.getY())
+                + normal.getZ() * (q0.getZ() - P0.getZ()));
+
+        // ray parallel to the plane
+        if (isZero(nP0Q0)) {
+            return Double.NaN;
+        }
+
+        double t = alignZero(nP0Q0 / nv);
+
+        if (t < 0 || alignZero(t - maxDistance) > 0)
+            return Double.NaN;
+
+        return t;
+    }
 }
@@ -8,6 +8,7 @@ import java.util.List;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VectorMath.tripleProduct;
 
 /**
  * Polygon class represents two-dimensional polygon in 3D Cartesian coordinate
@@ -25,6 +26,10 @@ public class Polygon extends Geometry {
      */
     protected final Plane plane;
     private final int size;
+    /**
+     * Box containing all the vertices of the polygon
+     */
+    private final BoundingBox box;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -53,6 +58,7 @@ public class Polygon extends Geometry {
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
         size = vertices.length;
+        box = new BoundingBox(vertices);
 
         // Generate the plane according to the first three vertices and associate the
         // polygon with this plane.
@@ -88,6 +94,19 @@ public class Polygon extends Geometry {
         }
     }
 
+    /**
+     * Constructor for the triangles, which keep their vertices as coordinates:
+     * neither the list of the vertices nor the plane is kept, only the box
+     *
+     * @param box box containing the vertices
+     */
+    protected Polygon(BoundingBox box) {
+        vertices = null;
+        plane = null;
+        size = 3;
+        this.box = box;
+    }
+
     /**
      * Use of the function getNormal of the interface Geometry
      *
@@ -99,6 +118,11 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
     /**
      * Use of the function findIntersections from the interface intersectable
      *
@@ -130,45 +154,85 @@ public class Polygon extends Geometry {
         // The polygon, which is done by checking that P is
         // to the same side of each line made by the points.
 
-        List<GeoPoint> planeIntersections = plane.findGeoIntsersections(ray);
+        List<GeoPoint> planeIntersections = plane.findGeoIntsersections(ray, maxDistance);
 
         if (planeIntersections == null) {
             return null;
         }
 
+        if (!isCrossedByRay(ray)) {
+            return null;
+        }
+        Point point = planeIntersections.get(0).point;
+
+        return List.of(new GeoPoint(this, point));
+    }
+
+    /**
+     * Use of the function findClosestGeoIntersectionHelper from the class Intersectable.
+     * The distance to the plane is calculated first (without creating any object),
+     * the edges are checked only if the hit is closer than maxDistance
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the intersection or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = plane.intersectionDistance(ray, maxDistance);
+        if (Double.isNaN(t) || !isCrossedByRay(ray))
+            return null;
+        return new GeoPoint(this, ray.getPoint(t), t);
+    }
+
+    /**
+     * Check that the ray goes through the inside of the polygon:
+     * P must be to the same side of each line made by the adjacent pairs of vertices
+     *
+     * @param ray the ray that crosses the plane of the polygon
+     * @return true if the ray crosses the polygon (not on an edge)
+     */
+    private boolean isCrossedByRay(Ray ray) {
+        // the vectors from the vertices to the head of the ray are calculated with the coordinates,
+        // without creating any object
         Point P0 = ray.getP0();
+        double p0x = P0.getX(), p0y = P0.getY(), p0z = P0.getZ();
         Vector v = ray.getDir();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
 
         Point P1 = vertices.get(1);
         Point P2 = vertices.get(0);
 
-        Vector v1 = P0.subtract(P1);
-        Vector v2 = P0.subtract(P2);
+        double v1x = p0x - P1.getX(), v1y = p0y - P1.getY(), v1z = p0z - P1.getZ();
+        double v2x = p0x - P2.getX(), v2y = p0y - P2.getY(), v2z = p0z - P2.getZ();
 
-        double sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+        double sign = alignZero(tripleProduct(vx, vy, vz, v1x, v1y, v1z, v2x, v2y, v2z));
 
         if (isZero(sign)) {
-            return null;
+            return false;
         }
 
         boolean positive = sign > 0;
 
         //iterate through all vertices of the polygon
         for (int i = vertices.size() - 1; i > 0; --i) {
-            v1 = v2;
-            v2 = P0.subtract(vertices.get(i));
-
-            sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+            v1x = v2x;
+            v1y = v2y;
+            v1z = v2z;
+            Point vertex = vertices.get(i);
+            v2x = p0x - vertex.getX();
+            v2y = p0y - vertex.getY();
+            v2z = p0z - vertex.getZ();
+
+            sign = alignZero(tripleProduct(vx, vy, vz, v1x, v1y, v1z, v2x, v2y, v2z));
             if (isZero(sign)) {
-                return null;
+                return false;
             }
 
             if (positive != (sign > 0)) {
-                return null;
+                return false;
             }
         }
-        Point point = planeIntersections.get(0).point;
-
-        return List.of(new GeoPoint(this, point));
+        return true;
     }
 }
@@ -3,6 +3,7 @@ package geometries;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import primitives.VectorMath;
 
 import java.util.List;
 
@@ -23,6 +24,11 @@ public class Sphere extends RadialGeometry {
      */
     private final double radius;
 
+    /**
+     * Box containing the sphere
+     */
+    private final BoundingBox box;
+
     /**
      * Constructor of the Sphere with 2 parameters
      *
@@ -32,6 +38,9 @@ public class Sphere extends RadialGeometry {
     public Sphere(Point center, double radius) {
         this.center = center;
         this.radius = radius;
+        this.box = new BoundingBox(
+                center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
     }
 
     /**
@@ -52,6 +61,11 @@ public class Sphere extends RadialGeometry {
         return radius;
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
     /**
      * Use of the function getNormal from the interface Geometry
      *
@@ -61,7 +75,9 @@ public class Sphere extends RadialGeometry {
     @Override
     public Vector getNormal(Point point) {
         // n = normalize(P - 0)
-        return (point.subtract(getCenter())).normalize();
+        return VectorMath.normalize(point.getX() - center.getX(),
+                point.getY() - center.getY(),
+                point.getZ() - center.getZ());
     }
 
     /**
@@ -118,4 +134,50 @@ public class Sphere extends RadialGeometry {
 
         return null;
     }
+
+    /**
+     * Use of the function findClosestGeoIntersectionHelper from the class Intersectable.
+     * Same calculation as findGeoIntsersectionsHelper, with the coordinates only,
+     * and a GeoPoint is created only for the closest hit
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the closest intersection or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+
+        // u = O - P0
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+
+        double tm = alignZero(VectorMath.dot(ux, uy, uz, v.getX(), v.getY(), v.getZ()));
+        double d = alignZero(Math.sqrt(VectorMath.lengthSquared(ux, uy, uz) - (tm * tm)));
+
+        // No intersections point
+        if (d >= radius)
+            return null;
+
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
+        double t1 = tm - th;
+        double t2 = tm + th;
+
+        // t1 is the closest, t2 is taken only if t1 is behind the head of the ray
+        double t;
+        if (t1 > 0)
+            t = t1;
+        else if (t2 > 0)
+            t = t2;
+        else
+            return null;
+
+        if (alignZero(t - maxDistance) > 0)
+            return null;
+
+        return new GeoPoint(this, ray.getPoint(t), t);
+    }
 }
@@ -3,21 +3,97 @@ package geometries;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import primitives.VectorMath;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
- * Class Triangle that inherit from Polygon
+ * Class Triangle that inherit from Polygon.
+ * A triangle keeps only the coordinates of its vertices and its box (not the list of the vertices
+ * and the plane of a polygon).
  */
 public class Triangle extends Polygon {
 
     /**
-     * Constructor of Triangle and execute the constructor of Polygon with super()
+     * Distance of the barycentric coordinates from an edge under which the hit is decided
+     * by the exact test of {@link #isInside}
+     */
+    private static final double EDGE_EPSILON = 1e-9;
+
+    /**
+     * Coordinates of the first vertex
+     */
+    private final double p0x, p0y, p0z;
+
+    /**
+     * Coordinates of the second vertex
+     */
+    private final double p1x, p1y, p1z;
+
+    /**
+     * Coordinates of the third vertex
+     */
+    private final double p2x, p2y, p2z;
+
+    /**
+     * Normal of the triangle, calculated at the first use
+     */
+    private volatile Vector normal;
+
+    /**
+     * Constructor of Triangle. Only the coordinates used by the intersection and the box are kept,
+     * the normal is calculated when it is needed.
      *
-     * @param vertices
+     * @param vertices the 3 vertices
+     * @throws IllegalArgumentException if there aren't 3 vertices or if they are on the same line
      */
     public Triangle(Point... vertices) {
-        super(vertices);
+        super(new BoundingBox(checkVertices(vertices)));
+        p0x = vertices[0].getX();
+        p0y = vertices[0].getY();
+        p0z = vertices[0].getZ();
+        p1x = vertices[1].getX();
+        p1y = vertices[1].getY();
+        p1z = vertices[1].getZ();
+        p2x = vertices[2].getX();
+        p2y = vertices[2].getY();
+        p2z = vertices[2].getZ();
+        // the vertices on the same line don't give any normal
+        calculateNormal();
+    }
+
+    /**
+     * Check the number of vertices of a triangle
+     *
+     * @param vertices the vertices
+     * @return the vertices
+     */
+    private static Point[] checkVertices(Point[] vertices) {
+        if (vertices.length != 3)
+            throw new IllegalArgumentException("A triangle must have 3 vertices");
+        return vertices;
+    }
+
+    /**
+     * Normal of the triangle, with the formula of {@link Plane#Plane(Point, Point, Point)}
+     *
+     * @return the normal
+     */
+    private Vector calculateNormal() {
+        Vector v1 = new Vector(p0x - p1x, p0y - p1y, p0z - p1z);
+        Vector v2 = new Vector(p0x - p2x, p0y - p2y, p0z - p2z);
+        return v1.crossProduct(v2).normalize();
+    }
+
+    @Override
+    public Vector getNormal(Point point) {
+        Vector n = normal;
+        if (n == null)
+            normal = n = calculateNormal();
+        return n;
     }
 
     /**
@@ -28,41 +104,177 @@ public class Triangle extends Polygon {
      */
     @Override
     public List<GeoPoint> findGeoIntsersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, null);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    /**
+     * Use of the function findClosestGeoIntersectionHelper from the class Intersectable
+     *
+     * @param ray         that allow us to know if there are intersections
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @return the intersection or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, null);
+        return Double.isNaN(t) ? null : new GeoPoint(this, ray.getPoint(t), t);
+    }
 
+    /**
+     * Intersection of the ray with the triangle (Möller–Trumbore) with the precomputed edges
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @param uv          if not null, receives the barycentric coordinates (u, v) of the hit
+     *                    (weights of the second and third vertices)
+     * @return the distance t of the hit or NaN if there is no intersection
+     */
+    public double intersect(Ray ray, double maxDistance, double[] uv) {
         Point p = ray.getP0();
         Vector v = ray.getDir();
+        return intersect(p.getX(), p.getY(), p.getZ(), v.getX(), v.getY(), v.getZ(),
+                p0x, p0y, p0z, p1x, p1y, p1z, p2x, p2y, p2z, maxDistance, uv);
+    }
 
-        // v1 = p1 - p0
-        // v2 = p2 - p0
-        // v3 = p3 - p0
+    /**
+     * Möller–Trumbore intersection between a ray and a triangle, without creating any object.
+     * The point of the ray P0 + t*v is written with the barycentric coordinates of the triangle
+     * p0 + u*e1 + v*e2, and the 3 unknowns are found with Cramer's rule:
+     * only one cross product is needed for the determinant and u, and one more for v and t.
+     * A hit clearly inside or outside is decided by the barycentric coordinates; a hit near an edge
+     * or a vertex (up to {@link #EDGE_EPSILON}) is decided by the exact test of {@link #isInside},
+     * so the triangles sharing an edge don't leave a crack between them.
+     *
+     * @param ox          x of the head of the ray
+     * @param oy          y of the head of the ray
+     * @param oz          z of the head of the ray
+     * @param dx          x of the direction of the ray
+     * @param dy          y of the direction of the ray
+     * @param dz          z of the direction of the ray
+     * @param p0x         x of the first vertex
+     * @param p0y         y of the first vertex
+     * @param p0z         z of the first vertex
+     * @param p1x         x of the second vertex
+     * @param p1y         y of the second vertex
+     * @param p1z         z of the second vertex
+     * @param p2x         x of the third vertex
+     * @param p2y         y of the third vertex
+     * @param p2z         z of the third vertex
+     * @param maxDistance the maximum distance we want the point to be from the starting point
+     * @param uv          if not null, receives the barycentric coordinates (u, v) of the hit
+     * @return the distance t of the hit or NaN if there is no intersection
+     */
+    static double intersect(double ox, double oy, double oz, double dx, double dy, double dz,
+                            double p0x, double p0y, double p0z,
+                            double p1x, double p1y, double p1z,
+                            double p2x, double p2y, double p2z,
+                            double maxDistance, double[] uv) {
+        // edges e1 = p1 - p0, e2 = p2 - p0
+        double e1x = p1x - p0x, e1y = p1y - p0y, e1z = p1z - p0z;
+        double e2x = p2x - p0x, e2y = p2y - p0y, e2z = p2z - p0z;
+
+        // h = dir x e2
+        double hx = dy * e2z - dz * e2y;
+        double hy = dz * e2x - dx * e2z;
+        double hz = dx * e2y - dy * e2x;
+
+        // the ray is parallel to the plane of the triangle
+        double det = e1x * hx + e1y * hy + e1z * hz;
+        if (isZero(det))
+            return Double.NaN;
+        double invDet = 1 / det;
+
+        // s = P0 - p0
+        double sx = ox - p0x;
+        double sy = oy - p0y;
+        double sz = oz - p0z;
 
-        Vector v1 = vertices.get(0).subtract(p);
-        Vector v2 = vertices.get(1).subtract(p);
-        Vector v3 = vertices.get(2).subtract(p);
+        double u = (sx * hx + sy * hy + sz * hz) * invDet;
+        if (u < -EDGE_EPSILON || u > 1 + EDGE_EPSILON)
+            return Double.NaN;
 
-        // n1 = normalize(v1 × v2)
-        // n2 = normalize(v2 × v3)
-        // n3 = normalize(v3 × v1)
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
 
-        // We calculate and check the 3 signs
-        double s1 = v.dotProduct(v1.crossProduct(v2));
-        double s2 = v.dotProduct(v2.crossProduct(v3));
-        double s3 = v.dotProduct(v3.crossProduct(v1));
+        double v = (dx * qx + dy * qy + dz * qz) * invDet;
+        if (v < -EDGE_EPSILON || u + v > 1 + EDGE_EPSILON)
+            return Double.NaN;
 
-        // The point is inside if and only if all v∙ni have the same sign (+/-)
-        if ((s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0)) {
-            // I used stream because if I return just plane.findGeoIntersections() it doesn't work
-            // for the multicolor test and the color of triangles doesn't appear
+        // near an edge the barycentric coordinates of the 2 triangles of the edge don't agree exactly
+        if ((u < EDGE_EPSILON || v < EDGE_EPSILON || u + v > 1 - EDGE_EPSILON)
+                && !isInside(ox, oy, oz, dx, dy, dz, p0x, p0y, p0z, p1x, p1y, p1z, p2x, p2y, p2z))
+            return Double.NaN;
 
-            if (plane.findGeoIntsersections(ray, maxDistance) == null)
-                return null;
-            //return plane.findGeoIntsersections(ray);
-            return (plane.findIntsersections(ray)).stream()
-                    .map(gp -> new GeoPoint(this, gp))
-                    .toList();
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return Double.NaN;
 
+        if (uv != null) {
+            uv[0] = u;
+            uv[1] = v;
         }
+        return t;
+    }
 
-        return null;
+    /**
+     * Exact test of a ray through the triangle, for the hits near an edge or a vertex: the ray is inside
+     * when it is on the same side of the 3 edges (sign of the triple products, as for the polygons).
+     * A ray exactly through an edge is put on one side of the edge only (see {@link #side}), so it hits
+     * exactly one of the 2 triangles sharing the edge, whatever the order of their vertices.
+     *
+     * @param ox  x of the head of the ray
+     * @param oy  y of the head of the ray
+     * @param oz  z of the head of the ray
+     * @param dx  x of the direction of the ray
+     * @param dy  y of the direction of the ray
+     * @param dz  z of the direction of the ray
+     * @param p0x x of the first vertex
+     * @param p0y y of the first vertex
+     * @param p0z z of the first vertex
+     * @param p1x x of the second vertex
+     * @param p1y y of the second vertex
+     * @param p1z z of the second vertex
+     * @param p2x x of the third vertex
+     * @param p2y y of the third vertex
+     * @param p2z z of the third vertex
+     * @return true if the ray goes through the triangle
+     */
+    private static boolean isInside(double ox, double oy, double oz, double dx, double dy, double dz,
+                                    double p0x, double p0y, double p0z,
+                                    double p1x, double p1y, double p1z,
+                                    double p2x, double p2y, double p2z) {
+        boolean side = side(ox, oy, oz, dx, dy, dz, p0x, p0y, p0z, p1x, p1y, p1z);
+        return side == side(ox, oy, oz, dx, dy, dz, p1x, p1y, p1z, p2x, p2y, p2z)
+                && side == side(ox, oy, oz, dx, dy, dz, p2x, p2y, p2z, p0x, p0y, p0z);
+    }
+
+    /**
+     * Side of the ray relatively to the edge a -> b: sign of the triple product v.((a - P0) x (b - P0)).
+     * The product is always calculated from the smaller vertex of the edge (by x, then y, then z),
+     * so the 2 triangles sharing the edge get exactly the same value, and a zero product is on the
+     * positive side of the edge directed from the smaller vertex (half-open edges).
+     *
+     * @param ox x of the head of the ray
+     * @param oy y of the head of the ray
+     * @param oz z of the head of the ray
+     * @param dx x of the direction of the ray
+     * @param dy y of the direction of the ray
+     * @param dz z of the direction of the ray
+     * @param ax x of the first vertex of the edge
+     * @param ay y of the first vertex of the edge
+     * @param az z of the first vertex of the edge
+     * @param bx x of the second vertex of the edge
+     * @param by y of the second vertex of the edge
+     * @param bz z of the second vertex of the edge
+     * @return true for the positive side of the edge a -> b
+     */
+    private static boolean side(double ox, double oy, double oz, double dx, double dy, double dz,
+                                double ax, double ay, double az, double bx, double by, double bz) {
+        if (ax > bx || ax == bx && (ay > by || ay == by && az > bz))
+            return VectorMath.tripleProduct(dx, dy, dz, bx - ox, by - oy, bz - oz, ax - ox, ay - oy, az - oz) < 0;
+        return VectorMath.tripleProduct(dx, dy, dz, ax - ox, ay - oy, az - oz, bx - ox, by - oy, bz - oz) >= 0;
     }
 }
@@ -53,6 +53,16 @@ public class Tube extends RadialGeometry {
         return radius;
     }
 
+    /**
+     * An infinite tube has no bounding box, so it is tested by every ray
+     *
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     /**
      * Use of the function getNormal of the interface Geometry
      *
@@ -0,0 +1,63 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+
+/**
+ * Abstract class AreaLight for the light sources that have a surface (e.g. a disk or a rectangle).
+ * The light is received as from a PointLight at the center of the surface, but the shadow
+ * depends on the part of the surface that is seen from the point, so the shadows are soft.
+ * The surface is given by a mapping of the unit square on it, which is used by the ray tracer
+ * to sample the surface adaptively: the corners of the square first, and more samples only
+ * in the parts of the square where the samples don't agree (the penumbra).
+ */
+public abstract class AreaLight extends PointLight {
+
+    /**
+     * Maximal number of subdivisions of the surface for the soft shadow
+     */
+    private int shadowDepth = 3;
+
+    /**
+     * Constructor of AreaLight with 2 parameters
+     *
+     * @param intensity Color for light source
+     * @param center    center of the surface of the light
+     */
+    protected AreaLight(Color intensity, Point center) {
+        super(intensity, center);
+    }
+
+    /**
+     * Point of the surface of the light given by its coordinates on the unit square
+     *
+     * @param s first coordinate, between 0 and 1
+     * @param t second coordinate, between 0 and 1
+     * @return the point of the surface
+     */
+    public abstract Point getPoint(double s, double t);
+
+    /**
+     * Getter for the maximal number of subdivisions of the surface for the soft shadow
+     *
+     * @return depth
+     */
+    public int getShadowDepth() {
+        return shadowDepth;
+    }
+
+    /**
+     * Setter for the maximal number of subdivisions of the surface for the soft shadow.
+     * With a depth d, a point in the penumbra is tested with up to (2^d + 1)^2 shadow rays,
+     * and a point fully lit or fully in the shadow with 4 shadow rays only.
+     *
+     * @param shadowDepth depth, 0 for the 4 corners only
+     * @return this
+     */
+    public AreaLight setShadowDepth(int shadowDepth) {
+        if (shadowDepth < 0)
+            throw new IllegalArgumentException("Shadow depth must be 0 or higher");
+        this.shadowDepth = shadowDepth;
+        return this;
+    }
+}
@@ -0,0 +1,83 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * Class DiskLight used in the case of a circular area light
+ */
+public class DiskLight extends AreaLight {
+
+    /**
+     * Center of the disk
+     */
+    private final Point center;
+
+    /**
+     * Radius of the disk
+     */
+    private final double radius;
+
+    /**
+     * 2 orthogonal unit vectors in the plane of the disk
+     */
+    private final Vector u, w;
+
+    /**
+     * Constructor of DiskLight with 4 parameters
+     *
+     * @param intensity Color for light source
+     * @param center    center of the disk
+     * @param normal    normal of the plane of the disk
+     * @param radius    radius of the disk
+     */
+    public DiskLight(Color intensity, Point center, Vector normal, double radius) {
+        super(intensity, center);
+        if (radius <= 0)
+            throw new IllegalArgumentException("The radius of the disk must be positive");
+        this.center = center;
+        this.radius = radius;
+        Vector n = normal.normalize();
+        u = n.orthogonal();
+        w = n.crossProduct(u);
+    }
+
+    /**
+     * Point of the disk by the concentric mapping of the square on the disk,
+     * which keeps the proportions of the areas: the squares around the center of the square
+     * become rings of the disk, so adjacent samples of the square are adjacent on the disk.
+     *
+     * @param s first coordinate, between 0 and 1
+     * @param t second coordinate, between 0 and 1
+     * @return the point of the disk
+     */
+    @Override
+    public Point getPoint(double s, double t) {
+        double a = 2 * s - 1;
+        double b = 2 * t - 1;
+        if (isZero(a) && isZero(b))
+            return center;
+
+        double r, phi;
+        if (Math.abs(a) > Math.abs(b)) {
+            r = a;
+            phi = Math.PI / 4 * (b / a);
+        } else {
+            r = b;
+            phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+        }
+        r *= radius;
+        double x = r * Math.cos(phi);
+        double y = r * Math.sin(phi);
+
+        Point point = center;
+        if (!isZero(x))
+            point = point.add(u.scale(x));
+        if (!isZero(y))
+            point = point.add(w.scale(y));
+        return point;
+    }
+}
@@ -4,6 +4,7 @@ import primitives.Color;
 import primitives.Double3;
 import primitives.Point;
 import primitives.Vector;
+import primitives.VectorMath;
 
 /**
  * Class PointLight used in the case of PointLight
@@ -74,11 +75,10 @@ public class PointLight extends Light implements LightSource {
     @Override
     public Vector getL(Point p) {
 
-        try {
-            return p.subtract(this.position).normalize();
-        } catch (Exception e) {
-            return null;
-        }
+        double x = p.getX() - position.getX();
+        double y = p.getY() - position.getY();
+        double z = p.getZ() - position.getZ();
+        return VectorMath.isZeroVector(x, y, z) ? null : VectorMath.normalize(x, y, z);
     }
 
     /**
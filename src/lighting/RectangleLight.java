@@ -0,0 +1,55 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * Class RectangleLight used in the case of a rectangular area light
+ */
+public class RectangleLight extends AreaLight {
+
+    /**
+     * Corner of the rectangle, for s = t = 0
+     */
+    private final Point corner;
+
+    /**
+     * First side of the rectangle (from the corner, for s = 1)
+     */
+    private final Vector side1;
+
+    /**
+     * Second side of the rectangle (from the corner, for t = 1)
+     */
+    private final Vector side2;
+
+    /**
+     * Constructor of RectangleLight with 4 parameters
+     *
+     * @param intensity Color for light source
+     * @param center    center of the rectangle
+     * @param side1     first side of the rectangle (its length is the width of the rectangle)
+     * @param side2     second side of the rectangle, orthogonal to the first
+     */
+    public RectangleLight(Color intensity, Point center, Vector side1, Vector side2) {
+        super(intensity, center);
+        if (!isZero(side1.dotProduct(side2)))
+            throw new IllegalArgumentException("The sides of the rectangle must be orthogonal");
+        this.side1 = side1;
+        this.side2 = side2;
+        this.corner = center.add(side1.scale(-0.5)).add(side2.scale(-0.5));
+    }
+
+    @Override
+    public Point getPoint(double s, double t) {
+        Point point = corner;
+        if (!isZero(s))
+            point = point.add(side1.scale(s));
+        if (!isZero(t))
+            point = point.add(side2.scale(t));
+        return point;
+    }
+}
@@ -84,6 +84,33 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Getter for the red component (without limit)
+     *
+     * @return red component
+     */
+    public double getRed() {
+        return rgb.d1;
+    }
+
+    /**
+     * Getter for the green component (without limit)
+     *
+     * @return green component
+     */
+    public double getGreen() {
+        return rgb.d2;
+    }
+
+    /**
+     * Getter for the blue component (without limit)
+     *
+     * @return blue component
+     */
+    public double getBlue() {
+        return rgb.d3;
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
@@ -150,6 +177,20 @@ public class Color {
         return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
     }
 
+    /**
+     * Checks whether two colors are close: each component of a color differs from
+     * the same component of the other color by at most a threshold
+     *
+     * @param other     the second color
+     * @param threshold maximal difference of a component (the components are in the range 0 - 255)
+     * @return true if the colors are close, false otherwise
+     */
+    public boolean isClose(Color other, double threshold) {
+        return Math.abs(rgb.d1 - other.rgb.d1) <= threshold
+                && Math.abs(rgb.d2 - other.rgb.d2) <= threshold
+                && Math.abs(rgb.d3 - other.rgb.d3) <= threshold;
+    }
+
     @Override
     public String toString() {
         return "rgb:" + rgb;
@@ -31,6 +31,18 @@ public class Material {
      */
     public int nShininess = 0;
 
+    /**
+     * Field glossiness: spread of the reflected rays, 0 for a perfect mirror
+     * (radius of the cone of the rays at distance 1 from its apex)
+     */
+    public double glossiness = 0;
+
+    /**
+     * Field blur: spread of the refracted rays, 0 for a clear transparency
+     * (radius of the cone of the rays at distance 1 from its apex)
+     */
+    public double blur = 0;
+
     /**
      * Setter for coefficient kD
      *
@@ -158,4 +170,46 @@ public class Material {
     public int getNShininess() {
         return nShininess;
     }
+
+    /**
+     * Setter for the glossiness of the reflection
+     *
+     * @param glossiness radius of the cone of the reflected rays at distance 1, 0 for a perfect mirror
+     * @return this
+     */
+    public Material setGlossiness(double glossiness) {
+        if (glossiness < 0)
+            throw new IllegalArgumentException("Glossiness must be 0 or higher");
+        this.glossiness = glossiness;
+        return this;
+    }
+
+    /**
+     * Setter for the blur of the refraction
+     *
+     * @param blur radius of the cone of the refracted rays at distance 1, 0 for a clear transparency
+     * @return this
+     */
+    public Material setBlur(double blur) {
+        if (blur < 0)
+            throw new IllegalArgumentException("Blur must be 0 or higher");
+        this.blur = blur;
+        return this;
+    }
+
+    /**
+     * Getter for the glossiness of the reflection
+     * @return glossiness
+     */
+    public double getGlossiness() {
+        return glossiness;
+    }
+
+    /**
+     * Getter for the blur of the refraction
+     * @return blur
+     */
+    public double getBlur() {
+        return blur;
+    }
 }
@@ -27,6 +27,12 @@ public class Ray {
      */
     final Vector dir;
 
+    /**
+     * Inverse of the coordinates of the direction (infinite for a zero coordinate),
+     * calculated once for the ray-box tests which are done many times for each ray
+     */
+    private final double invDirX, invDirY, invDirZ;
+
     /**
      * Constructor of Ray with 2 parameters
      *
@@ -36,6 +42,9 @@ public class Ray {
     public Ray(Point p0, Vector dir) {
         this.p0 = p0;
         this.dir = dir.normalize();
+        this.invDirX = 1 / this.dir.xyz.d1;
+        this.invDirY = 1 / this.dir.xyz.d2;
+        this.invDirZ = 1 / this.dir.xyz.d3;
     }
 
     /**
@@ -48,11 +57,35 @@ public class Ray {
     public Ray(Point point, Vector dir, Vector n) {
         this.dir = dir.normalize();
         double nv = n.dotProduct(this.dir);
-        Vector delta = n.scale(DELTA);
-        if (nv < 0)
-            delta = delta.scale(-1);
-        this.p0 = point.add(delta);
+        // the head is moved by DELTA along the normal, to the side of the direction
+        double delta = nv < 0 ? -DELTA : DELTA;
+        this.p0 = new Point(point.xyz.d1 + n.xyz.d1 * delta,
+                point.xyz.d2 + n.xyz.d2 * delta,
+                point.xyz.d3 + n.xyz.d3 * delta);
+        this.invDirX = 1 / this.dir.xyz.d1;
+        this.invDirY = 1 / this.dir.xyz.d2;
+        this.invDirZ = 1 / this.dir.xyz.d3;
+    }
 
+    /**
+     * Constructor of Ray with the coordinates of its direction.
+     * The direction is normalized here as by {@link Vector#normalize()}, so the ray is
+     * the same as with a Vector, without creating the intermediate vectors.
+     *
+     * @param p0 head of the ray
+     * @param dx x of the direction (not necessarily normalized)
+     * @param dy y of the direction
+     * @param dz z of the direction
+     */
+    public Ray(Point p0, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length == 0)
+            throw new IllegalArgumentException("Vector zero is not a direction");
+        this.p0 = p0;
+        this.dir = new Vector(dx / length, dy / length, dz / length);
+        this.invDirX = 1 / this.dir.xyz.d1;
+        this.invDirY = 1 / this.dir.xyz.d2;
+        this.invDirZ = 1 / this.dir.xyz.d3;
     }
 
     @Override
@@ -94,6 +127,33 @@ public class Ray {
         return dir;
     }
 
+    /**
+     * Getter for the inverse of the x coordinate of the direction
+     *
+     * @return 1 / dir.x
+     */
+    public double getInvDirX() {
+        return invDirX;
+    }
+
+    /**
+     * Getter for the inverse of the y coordinate of the direction
+     *
+     * @return 1 / dir.y
+     */
+    public double getInvDirY() {
+        return invDirY;
+    }
+
+    /**
+     * Getter for the inverse of the z coordinate of the direction
+     *
+     * @return 1 / dir.z
+     */
+    public double getInvDirZ() {
+        return invDirZ;
+    }
+
     /**
      * Refactoring for the calculation code of a point on a ray
      *
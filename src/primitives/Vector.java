@@ -2,6 +2,8 @@ package primitives;
 
 import java.util.Objects;
 
+import static primitives.Util.isZero;
+
 /**
  * This class will serve to use vector for all the project that is
  * a fundamental object in geometry that has direction and size
@@ -26,7 +28,7 @@ public class Vector extends Point {
      */
     public Vector(Double3 xyz) {
         super(xyz);
-        if (this.xyz.equals(Double3.ZERO)) {
+        if (VectorMath.isZeroVector(xyz.d1, xyz.d2, xyz.d3)) {
             throw new IllegalArgumentException("Vector null is not permitted!");
         }
     }
@@ -122,6 +124,17 @@ public class Vector extends Point {
         return Math.sqrt(lengthSquared());
     }
 
+    /**
+     * Any unit vector orthogonal to this vector
+     *
+     * @return unit vector v such that this.v = 0
+     */
+    public Vector orthogonal() {
+        if (isZero(xyz.d1) && isZero(xyz.d2))
+            return new Vector(1, 0, 0);
+        return new Vector(-xyz.d2, xyz.d1, 0).normalize();
+    }
+
     /**
      * Transform the vector to be unit
      *
@@ -0,0 +1,134 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * Low level vector operations on the coordinates (primitive doubles), for the hot paths of the
+ * intersections and of the shading, which are done many times for each pixel.
+ * The operations don't create any object (except {@link #normalize(double, double, double)} which
+ * creates only the result), and give exactly the same numbers as the operations of
+ * {@link Vector} and {@link Point}, so the immutable classes can still be used everywhere else.
+ */
+public final class VectorMath {
+
+    /**
+     * Private constructor, the class has only static functions
+     */
+    private VectorMath() {
+    }
+
+    /**
+     * Dot product between 2 vectors, as {@link Vector#dotProduct(Vector)}
+     *
+     * @param ax x of the first vector
+     * @param ay y of the first vector
+     * @param az z of the first vector
+     * @param bx x of the second vector
+     * @param by y of the second vector
+     * @param bz z of the second vector
+     * @return a.b
+     */
+    public static double dot(double ax, double ay, double az, double bx, double by, double bz) {
+        return ax * bx + ay * by + az * bz;
+    }
+
+    /**
+     * Squared length of a vector, as {@link Vector#lengthSquared()}
+     *
+     * @param x x of the vector
+     * @param y y of the vector
+     * @param z z of the vector
+     * @return x^2 + y^2 + z^2
+     */
+    public static double lengthSquared(double x, double y, double z) {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Check that all the coordinates are zero (with the precision of {@link Util#isZero(double)})
+     *
+     * @param x x of the vector
+     * @param y y of the vector
+     * @param z z of the vector
+     * @return true for the vector zero
+     */
+    public static boolean isZeroVector(double x, double y, double z) {
+        return isZero(x) && isZero(y) && isZero(z);
+    }
+
+    /**
+     * Triple product v.(a x b), as v.dotProduct(a.crossProduct(b))
+     *
+     * @param vx x of the vector v
+     * @param vy y of the vector v
+     * @param vz z of the vector v
+     * @param ax x of the vector a
+     * @param ay y of the vector a
+     * @param az z of the vector a
+     * @param bx x of the vector b
+     * @param by y of the vector b
+     * @param bz z of the vector b
+     * @return v.(a x b)
+     */
+    public static double tripleProduct(double vx, double vy, double vz,
+                                       double ax, double ay, double az,
+                                       double bx, double by, double bz) {
+        return dot(vx, vy, vz, ay * bz - az * by, az * bx - ax * bz, ax * by - ay * bx);
+    }
+
+    /**
+     * Cross product between 2 vectors, as {@link Vector#crossProduct(Vector)}, into an array
+     *
+     * @param ax     x of the first vector
+     * @param ay     y of the first vector
+     * @param az     z of the first vector
+     * @param bx     x of the second vector
+     * @param by     y of the second vector
+     * @param bz     z of the second vector
+     * @param result array receiving the coordinates x, y, z of a x b
+     * @param offset index of x in the array
+     */
+    public static void cross(double ax, double ay, double az, double bx, double by, double bz,
+                             double[] result, int offset) {
+        result[offset] = ay * bz - az * by;
+        result[offset + 1] = az * bx - ax * bz;
+        result[offset + 2] = ax * by - ay * bx;
+    }
+
+    /**
+     * Reflection of a vector on a surface, v - 2(v.n)n, into an array
+     *
+     * @param vx     x of the vector
+     * @param vy     y of the vector
+     * @param vz     z of the vector
+     * @param nx     x of the normal to the surface (unit vector)
+     * @param ny     y of the normal
+     * @param nz     z of the normal
+     * @param result array receiving the coordinates x, y, z of the reflected vector
+     * @param offset index of x in the array
+     */
+    public static void reflect(double vx, double vy, double vz, double nx, double ny, double nz,
+                               double[] result, int offset) {
+        double scale = 2 * dot(vx, vy, vz, nx, ny, nz);
+        result[offset] = vx - nx * scale;
+        result[offset + 1] = vy - ny * scale;
+        result[offset + 2] = vz - nz * scale;
+    }
+
+    /**
+     * Unit vector in the direction of the coordinates, as {@link Vector#normalize()} without the
+     * intermediate vector
+     *
+     * @param x x of the vector
+     * @param y y of the vector
+     * @param z z of the vector
+     * @return the unit vector
+     * @throws IllegalArgumentException for the vector zero
+     */
+    public static Vector normalize(double x, double y, double z) {
+        if (isZeroVector(x, y, z))
+            throw new IllegalArgumentException("Vector null is not permitted!");
+        double length = Math.sqrt(lengthSquared(x, y, z));
+        return new Vector(x / length, y / length, z / length);
+    }
+}
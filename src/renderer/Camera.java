@@ -6,6 +6,10 @@ import primitives.Ray;
 import primitives.Vector;
 
 import java.util.MissingResourceException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import static primitives.Util.isZero;
 
@@ -56,6 +60,45 @@ public class Camera {
      */
     private RayTracerBase rayTracer;
 
+    /**
+     * Number of render threads, 0 for rendering on the calling thread
+     */
+    private int threadsCount = 0;
+
+    /**
+     * Size in pixels of the square tiles rendered by each task of the parallel render
+     * (and height of the bands of rows streamed by the serial render)
+     */
+    private int tileSize = 32;
+
+    /**
+     * Maximal number of subdivisions of a pixel by the adaptive super sampling,
+     * 0 for a single ray through the center of each pixel
+     */
+    private int adaptiveDepth = 0;
+
+    /**
+     * Maximal difference of a color component between the samples of a pixel
+     * under which the pixel is not subdivided
+     */
+    private double adaptiveThreshold = 0;
+
+    /**
+     * Number of rays traced by the last render
+     */
+    private final LongAdder samplesCount = new LongAdder();
+
+    /**
+     * Number of pixels subdivided by the adaptive super sampling in the last render
+     */
+    private final LongAdder subdividedPixelsCount = new LongAdder();
+
+    /**
+     * Generator of the rays of the View Plane, kept for the next renders and rays of the same
+     * resolution, null after a change of the View Plane
+     */
+    private RayGenerator generator;
+
     /**
      * Constructor of Camera with 3 parameters: position point and 2 vectors.
      * The 2 vectors are used to calculate the third.
@@ -116,6 +159,7 @@ public class Camera {
     public Camera setVPSize(double width, double height) {
         this.width = width;
         this.height = height;
+        generator = null;
         return this;
     }
 
@@ -127,6 +171,7 @@ public class Camera {
      */
     public Camera setVPDistance(double distance) {
         this.distance = distance;
+        generator = null;
         return this;
     }
 
@@ -152,6 +197,74 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Setter for the number of render threads.
+     * The image is cut into tiles which are rendered by a ForkJoinPool, so a thread that
+     * has finished its tiles steals the work of the others. The image is the same as with
+     * the serial render.
+     *
+     * @param threadsCount number of threads, 0 for the serial render
+     * @return this
+     */
+    public Camera setMultithreading(int threadsCount) {
+        if (threadsCount < 0)
+            throw new IllegalArgumentException("Multithreading parameter must be 0 or higher");
+        this.threadsCount = threadsCount;
+        return this;
+    }
+
+    /**
+     * Setter for the size of the tiles of the parallel render
+     *
+     * @param tileSize width and height of a tile in pixels
+     * @return this
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Setter for the adaptive super sampling (anti-aliasing).
+     * The 4 corners of each pixel are sampled first (a corner is shared by 4 pixels and traced once).
+     * If their colors are close, the pixel gets their average, else the pixel is cut in 4 sub-pixels
+     * which are sampled (with the 5 new points only) and treated in the same way, up to the maximal depth.
+     * So the rays are added only on the edges and the details of the image.
+     *
+     * @param depth     maximal number of subdivisions of a pixel, 0 for one ray through the center of each pixel
+     * @param threshold maximal difference of a color component (0 - 255) between close samples
+     * @return this
+     */
+    public Camera setAdaptiveSuperSampling(int depth, double threshold) {
+        if (depth < 0)
+            throw new IllegalArgumentException("Depth of the super sampling must be 0 or higher");
+        if (threshold < 0)
+            throw new IllegalArgumentException("Threshold of the super sampling must be 0 or higher");
+        this.adaptiveDepth = depth;
+        this.adaptiveThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Getter for the number of rays traced by the last render
+     *
+     * @return number of primary rays
+     */
+    public long getSamplesCount() {
+        return samplesCount.sum();
+    }
+
+    /**
+     * Getter for the number of pixels subdivided by the adaptive super sampling in the last render
+     *
+     * @return number of subdivided pixels
+     */
+    public long getSubdividedPixelsCount() {
+        return subdividedPixelsCount.sum();
+    }
+
     /**
      * Function for to create ray through pixel
      *
@@ -162,46 +275,136 @@ public class Camera {
      * @return Ray through pixel
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
+        return rayGenerator(nX, nY).constructRay(j, i);
+    }
 
-        // Image center
-        Point pc = p0.add(vTo.scale(distance));
-
-        // Ratio (pixel width & height)
-        double Ry = height / nY;
-        double Rx = width / nX;
+    /**
+     * Generator of the rays of the View Plane, created again only when the View Plane changes
+     *
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @return the generator
+     */
+    private RayGenerator rayGenerator(int nX, int nY) {
+        RayGenerator current = generator;
+        if (current == null || !current.hasResolution(nX, nY))
+            generator = current = new RayGenerator(this, nX, nY);
+        return current;
+    }
 
-        // Pixel[i,j] center
-        double yi = -(i - (nY - 1) / 2d) * Ry;
-        double xj = (j - (nX - 1) / 2d) * Rx;
+    /**
+     * This function create a ray through a point of the View Plane, scan him with the traceRay
+     * and return the color
+     *
+     * @param generator generator of the rays of the View Plane
+     * @param j         column (fractional for a point that is not the center of a pixel)
+     * @param i         row
+     * @return the color of the ray
+     */
+    private Color castRay(RayGenerator generator, double j, double i) {
+        samplesCount.increment();
+        return rayTracer.traceRay(generator.constructRay(j, i));
+    }
 
-        Point Pij = pc;
+    /**
+     * Render the pixels of a rectangle of the image
+     *
+     * @param generator generator of the rays of the View Plane
+     * @param iStart    first row
+     * @param iEnd      row after the last row
+     * @param jStart    first column
+     * @param jEnd      column after the last column
+     * @param above     colors of the corners above the first row (adaptive super sampling),
+     *                  null if they aren't traced yet
+     * @return the colors of the corners below the last row (null without adaptive super sampling)
+     */
+    private Color[] renderPixels(RayGenerator generator, int iStart, int iEnd, int jStart, int jEnd, Color[] above) {
+        if (adaptiveDepth == 0) {
+            // the directions of the rays are calculated row by row into the same array
+            double[] directions = new double[3 * (jEnd - jStart)];
+            for (int i = iStart; i < iEnd; i++) {
+                generator.constructDirections(i, jStart, jEnd, directions);
+                for (int j = jStart, index = 0; j < jEnd; j++, index += 3) {
+                    samplesCount.increment();
+                    imageWriter.writePixel(j, i, rayTracer.traceRay(
+                            new Ray(p0, directions[index], directions[index + 1], directions[index + 2])));
+                }
+            }
+            return null;
+        }
 
-        if (!isZero(xj)) {
-            Pij = Pij.add(vRight.scale(xj));
+        // corners above and below the current row of pixels, each corner is traced once
+        int width = jEnd - jStart;
+        Color[] upper = above;
+        Color[] lower = new Color[width + 1];
+        if (upper == null) {
+            upper = new Color[width + 1];
+            for (int k = 0; k <= width; k++) {
+                upper[k] = castRay(generator, jStart + k - 0.5, iStart - 0.5);
+            }
         }
-        if (!isZero(yi)) {
-            Pij = Pij.add(vUp.scale(yi));
+        for (int i = iStart; i < iEnd; i++) {
+            for (int k = 0; k <= width; k++) {
+                lower[k] = castRay(generator, jStart + k - 0.5, i + 0.5);
+            }
+            for (int k = 0; k < width; k++) {
+                Color[] corners = {upper[k], upper[k + 1], lower[k], lower[k + 1]};
+                if (!isClose(corners))
+                    subdividedPixelsCount.increment();
+                imageWriter.writePixel(jStart + k, i, adaptiveSample(generator, jStart + k, i, 1, corners, adaptiveDepth));
+            }
+            Color[] row = upper;
+            upper = lower;
+            lower = row;
         }
+        return upper;
+    }
 
-        // vector from camera's eye in the direction of point(i,j) in the viewplane
-        Vector Vij = Pij.subtract(p0);
-
-        return new Ray(p0, Vij);
+    /**
+     * Color of a square of the View Plane by adaptive super sampling
+     *
+     * @param generator generator of the rays of the View Plane
+     * @param j         column of the center of the square
+     * @param i         row of the center of the square
+     * @param size      side of the square (in pixels)
+     * @param corners   colors of the corners: upper left, upper right, lower left, lower right
+     * @param depth     number of subdivisions still allowed
+     * @return the average color of the square
+     */
+    private Color adaptiveSample(RayGenerator generator, double j, double i, double size, Color[] corners, int depth) {
+        if (depth == 0 || isClose(corners))
+            return corners[0].add(corners[1], corners[2], corners[3]).reduce(4);
+
+        // the 5 new samples are shared by the 4 sub-squares
+        double half = size / 2;
+        Color center = castRay(generator, j, i);
+        Color top = castRay(generator, j, i - half);
+        Color bottom = castRay(generator, j, i + half);
+        Color left = castRay(generator, j - half, i);
+        Color right = castRay(generator, j + half, i);
+
+        double quarter = size / 4;
+        return adaptiveSample(generator, j - quarter, i - quarter, half,
+                new Color[]{corners[0], top, left, center}, depth - 1)
+                .add(adaptiveSample(generator, j + quarter, i - quarter, half,
+                                new Color[]{top, corners[1], center, right}, depth - 1),
+                        adaptiveSample(generator, j - quarter, i + quarter, half,
+                                new Color[]{left, center, corners[2], bottom}, depth - 1),
+                        adaptiveSample(generator, j + quarter, i + quarter, half,
+                                new Color[]{center, right, bottom, corners[3]}, depth - 1))
+                .reduce(4);
     }
 
     /**
-     * This function create a ray, scan him with the traceRay and return the color
+     * Checks whether the colors of the corners of a square are close to each other
      *
-     * @param nX resolution
-     * @param nY resolution
-     * @param i  index
-     * @param j  index
-     * @return the color of the ray
+     * @param corners the 4 colors
+     * @return true if each color is close to the first one
      */
-    private void castRay(int nX, int nY, int i, int j) {
-        Ray ray = constructRay(nX, nY, j, i);
-        Color pixelColor = rayTracer.traceRay(ray);
-        imageWriter.writePixel(j, i, pixelColor);
+    private boolean isClose(Color[] corners) {
+        return corners[0].isClose(corners[1], adaptiveThreshold)
+                && corners[0].isClose(corners[2], adaptiveThreshold)
+                && corners[0].isClose(corners[3], adaptiveThreshold);
     }
 
     /**
@@ -226,25 +429,123 @@ public class Camera {
 
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
-
-        for (int i = 0; i < nY; i++) {
-            for (int j = 0; j < nX; j++) {
-                castRay(nX, nY, i, j);
+        // what doesn't depend on the pixel is calculated once for the whole image
+        RayGenerator generator = rayGenerator(nX, nY);
+        samplesCount.reset();
+        subdividedPixelsCount.reset();
+
+        if (threadsCount == 0) {
+            // the rows are given to the image writer by bands, the corners below a band are kept for the next one
+            Color[] corners = null;
+            for (int iStart = 0; iStart < nY; iStart += tileSize) {
+                int iEnd = Math.min(iStart + tileSize, nY);
+                corners = renderPixels(generator, iStart, iEnd, 0, nX, corners);
+                imageWriter.writeRows(iStart, iEnd);
             }
+            return this;
+        }
+
+        int tilesX = (nX + tileSize - 1) / tileSize;
+        int tilesY = (nY + tileSize - 1) / tileSize;
+        // tiles not rendered yet in each row of tiles, a finished row is given to the image writer
+        AtomicIntegerArray remaining = new AtomicIntegerArray(tilesY);
+        for (int row = 0; row < tilesY; ++row)
+            remaining.set(row, tilesX);
+        ForkJoinPool pool = new ForkJoinPool(threadsCount);
+        try {
+            pool.invoke(new RenderTask(generator, nX, nY, tilesX, remaining, 0, tilesX * tilesY));
+        } finally {
+            pool.shutdown();
         }
         return this;
     }
 
+    /**
+     * Task of the parallel render: renders a range of tiles (numbered row by row).
+     * The range is split in 2 sub-tasks until it contains a single tile.
+     */
+    @SuppressWarnings("serial")
+    private class RenderTask extends RecursiveAction {
+
+        /**
+         * Generator of the rays of the View Plane
+         */
+        private final RayGenerator generator;
+
+        /**
+         * Resolution of the image
+         */
+        private final int nX, nY;
+
+        /**
+         * Number of tiles in a row of the image
+         */
+        private final int tilesX;
+
+        /**
+         * Number of tiles not rendered yet in each row of tiles
+         */
+        private final AtomicIntegerArray remaining;
+
+        /**
+         * Range of tiles [from, to) of the task
+         */
+        private final int from, to;
+
+        /**
+         * Constructor of RenderTask
+         *
+         * @param generator generator of the rays of the View Plane
+         * @param nX        amount of columns
+         * @param nY        amount of rows
+         * @param tilesX    number of tiles in a row
+         * @param remaining number of tiles not rendered yet in each row of tiles
+         * @param from      first tile of the task
+         * @param to        tile after the last tile of the task
+         */
+        private RenderTask(RayGenerator generator, int nX, int nY, int tilesX, AtomicIntegerArray remaining,
+                           int from, int to) {
+            this.generator = generator;
+            this.nX = nX;
+            this.nY = nY;
+            this.tilesX = tilesX;
+            this.remaining = remaining;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RenderTask(generator, nX, nY, tilesX, remaining, from, middle),
+                        new RenderTask(generator, nX, nY, tilesX, remaining, middle, to));
+                return;
+            }
+
+            int iStart = (from / tilesX) * tileSize;
+            int jStart = (from % tilesX) * tileSize;
+            int iEnd = Math.min(iStart + tileSize, nY);
+            int jEnd = Math.min(jStart + tileSize, nX);
+            renderPixels(generator, iStart, iEnd, jStart, jEnd, null);
+            if (remaining.decrementAndGet(from / tilesX) == 0)
+                imageWriter.writeRows(iStart, iEnd);
+        }
+    }
+
     /**
      * Print the grid on the image
      *
      * @param interval fix field
      * @param color    color of the grid
+     * @throws IllegalStateException if the image is streamed, its rows are already written
      */
     public void printGrid(int interval, Color color) {
         if (imageWriter == null) {
             throw new MissingResourceException("imageWriter is null", getClass().getName(), "");
         }
+        if (imageWriter.isStreamed())
+            throw new IllegalStateException("The grid can't be printed on a streamed image");
 
         for (int row = 0; row < 10; row++) {
             for (int j = 0; j < 1000; j++) {
@@ -0,0 +1,374 @@
+package renderer;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * High dynamic range frame buffer: the linear radiance of each pixel (red, green, blue)
+ * in float arrays, without any limit to 255, and the number of samples added to each pixel
+ * (16 bytes for each pixel).
+ * A radiance set by {@link #setPixel} is stored as the nearest float below it (see {@link #toFloat}):
+ * the float nearest to a color just below an integer may be the integer itself (e.g. 127.99999999 is
+ * 128 as a float), so a pixel set once is quantized exactly as {@link primitives.Color#getColor()} would.
+ * The render threads write the pixels without any lock:
+ * <ul>
+ * <li>{@link #setPixel} is a plain write, for a pixel written by one thread</li>
+ * <li>{@link #addSample} adds with compare-and-set loops, so several threads can
+ * accumulate samples of the same pixel</li>
+ * </ul>
+ * The colors are converted to 8 bits only once, by {@link #quantize(int[])}, when the image is written,
+ * or written as floats without any conversion by {@link #writePfm}.
+ * The pixels are kept in arrays in the heap; {@link MappedFrameBuffer} keeps them in a file instead.
+ */
+public class FrameBuffer {
+
+    /**
+     * Access to the elements of the radiance arrays with compare-and-set
+     */
+    private static final VarHandle RADIANCE = MethodHandles.arrayElementVarHandle(float[].class);
+
+    /**
+     * Access to the elements of the samples array with atomic add
+     */
+    private static final VarHandle SAMPLES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Width of the buffer in pixels
+     */
+    private final int nX;
+
+    /**
+     * Height of the buffer in pixels
+     */
+    private final int nY;
+
+    /**
+     * Radiance of the pixels in each channel (red, green, blue), row by row: the pixel (x, y) at y nX + x
+     */
+    private final float[][] radiance;
+
+    /**
+     * Number of samples of each pixel (the radiance is their sum)
+     */
+    private final int[] samples;
+
+    /**
+     * Constructor of FrameBuffer, all the pixels black without any sample
+     *
+     * @param nX width in pixels
+     * @param nY height in pixels
+     */
+    public FrameBuffer(int nX, int nY) {
+        this(nX, nY, true);
+    }
+
+    /**
+     * Constructor of FrameBuffer for the subclasses, which keep the pixels out of the heap
+     *
+     * @param nX     width in pixels
+     * @param nY     height in pixels
+     * @param inHeap whether the pixels are kept in arrays of this class
+     */
+    FrameBuffer(int nX, int nY, boolean inHeap) {
+        if (nX <= 0 || nY <= 0)
+            throw new IllegalArgumentException("The size of the frame buffer must be positive");
+        this.nX = nX;
+        this.nY = nY;
+        if (!inHeap) {
+            radiance = null;
+            samples = null;
+        } else {
+            if ((long) nX * nY > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The frame buffer is too big for the heap, use a MappedFrameBuffer");
+            radiance = new float[][]{new float[nX * nY], new float[nX * nY], new float[nX * nY]};
+            samples = new int[nX * nY];
+        }
+    }
+
+    /**
+     * Getter for the width
+     *
+     * @return width in pixels
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Getter for the height
+     *
+     * @return height in pixels
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Index of a pixel, checked
+     *
+     * @param x column
+     * @param y row
+     * @return index of the pixel, row by row
+     */
+    private long index(int x, int y) {
+        if (x < 0 || x >= nX || y < 0 || y >= nY)
+            throw new ArrayIndexOutOfBoundsException("Coordinate out of bounds!");
+        return (long) y * nX + x;
+    }
+
+    /**
+     * Set the radiance of a pixel as one sample.
+     * It is safe to call it from several threads as long as each pixel is written by one thread.
+     *
+     * @param x column
+     * @param y row
+     * @param r red radiance
+     * @param g green radiance
+     * @param b blue radiance
+     */
+    public void setPixel(int x, int y, double r, double g, double b) {
+        store(index(x, y), r, g, b);
+    }
+
+    /**
+     * Add a sample to a pixel, without any lock: it is safe to call it from several threads
+     * for the same pixel
+     *
+     * @param x column
+     * @param y row
+     * @param r red radiance of the sample
+     * @param g green radiance of the sample
+     * @param b blue radiance of the sample
+     */
+    public void addSample(int x, int y, double r, double g, double b) {
+        accumulate(index(x, y), r, g, b);
+    }
+
+    /**
+     * Number of samples of a pixel
+     *
+     * @param x column
+     * @param y row
+     * @return the number of samples
+     */
+    public int getSamples(int x, int y) {
+        return samples(index(x, y));
+    }
+
+    /**
+     * Radiance of a pixel: the average of its samples
+     *
+     * @param x   column
+     * @param y   row
+     * @param rgb array receiving the red, green and blue radiance (0 for a pixel without sample)
+     */
+    public void getPixel(int x, int y, double[] rgb) {
+        long pixel = index(x, y);
+        int count = Math.max(1, samples(pixel));
+        for (int channel = 0; channel < 3; ++channel)
+            rgb[channel] = radiance(pixel, channel) / count;
+    }
+
+    // ***************** Storage of the pixels ********************** //
+
+    /**
+     * Set a pixel as one sample (plain writes)
+     *
+     * @param pixel index of the pixel
+     * @param r     red radiance
+     * @param g     green radiance
+     * @param b     blue radiance
+     */
+    void store(long pixel, double r, double g, double b) {
+        int i = (int) pixel;
+        radiance[0][i] = toFloat(r);
+        radiance[1][i] = toFloat(g);
+        radiance[2][i] = toFloat(b);
+        samples[i] = 1;
+    }
+
+    /**
+     * Add a sample to a pixel (atomic additions)
+     *
+     * @param pixel index of the pixel
+     * @param r     red radiance of the sample
+     * @param g     green radiance of the sample
+     * @param b     blue radiance of the sample
+     */
+    void accumulate(long pixel, double r, double g, double b) {
+        int i = (int) pixel;
+        add(radiance[0], i, (float) r);
+        add(radiance[1], i, (float) g);
+        add(radiance[2], i, (float) b);
+        SAMPLES.getAndAdd(samples, i, 1);
+    }
+
+    /**
+     * Atomic addition to an element of a radiance array (compare-and-set loop)
+     *
+     * @param channel the radiance array of a channel
+     * @param index   index of the element
+     * @param value   value added
+     */
+    private static void add(float[] channel, int index, float value) {
+        float current;
+        do {
+            current = (float) RADIANCE.getVolatile(channel, index);
+        } while (!RADIANCE.weakCompareAndSet(channel, index, current, current + value));
+    }
+
+    /**
+     * Radiance stored as a float: the nearest float below the value, so the integer part
+     * of the radiance (its 8 bits color) is kept
+     *
+     * @param value the radiance
+     * @return the float
+     */
+    static float toFloat(double value) {
+        float rounded = (float) value;
+        return rounded > value ? Math.nextDown(rounded) : rounded;
+    }
+
+    /**
+     * Sum of the radiance of the samples of a pixel in a channel
+     *
+     * @param pixel   index of the pixel
+     * @param channel 0 for red, 1 for green, 2 for blue
+     * @return the radiance
+     */
+    double radiance(long pixel, int channel) {
+        return radiance[channel][(int) pixel];
+    }
+
+    /**
+     * Number of samples of a pixel
+     *
+     * @param pixel index of the pixel
+     * @return the number of samples
+     */
+    int samples(long pixel) {
+        return samples[(int) pixel];
+    }
+
+    // ***************** Output ********************** //
+
+    /**
+     * Convert the buffer to 8 bits colors: the average of the samples of each pixel,
+     * with each component cut to the range 0 - 255 as {@link primitives.Color#getColor()}
+     *
+     * @param pixels array receiving the colors (0xRRGGBB) row by row
+     */
+    public void quantize(int[] pixels) {
+        if (pixels.length < (long) nX * nY)
+            throw new IllegalArgumentException("The array must contain a color for each pixel");
+        for (int pixel = 0; pixel < nX * nY; ++pixel)
+            pixels[pixel] = quantize(pixel);
+    }
+
+    /**
+     * Convert a row of the buffer to 8 bits colors, as {@link #quantize(int[])}
+     *
+     * @param y      the row
+     * @param pixels array receiving the colors (0xRRGGBB) of the row
+     * @param offset index of the color of the first pixel of the row in the array
+     */
+    public void quantizeRow(int y, int[] pixels, int offset) {
+        long first = index(0, y);
+        if (offset < 0 || offset + nX > pixels.length)
+            throw new IllegalArgumentException("The array must contain a color for each pixel of the row");
+        for (int x = 0; x < nX; ++x)
+            pixels[offset + x] = quantize(first + x);
+    }
+
+    /**
+     * Convert a pixel to an 8 bits color, each component cut to the range 0 - 255
+     *
+     * @param pixel index of the pixel
+     * @return the color 0xRRGGBB
+     */
+    private int quantize(long pixel) {
+        int count = Math.max(1, samples(pixel));
+        int rgb = 0;
+        for (int channel = 0; channel < 3; ++channel) {
+            double value = count == 1 ? radiance(pixel, channel) : radiance(pixel, channel) / count;
+            rgb = rgb << 8 | Math.max(0, Math.min(255, (int) value));
+        }
+        return rgb;
+    }
+
+    /**
+     * Copy of the buffer, e.g. for writing it while the render goes on
+     *
+     * @return the copy
+     */
+    public FrameBuffer copy() {
+        FrameBuffer copy = new FrameBuffer(nX, nY);
+        for (int channel = 0; channel < 3; ++channel)
+            System.arraycopy(radiance[channel], 0, copy.radiance[channel], 0, samples.length);
+        System.arraycopy(samples, 0, copy.samples, 0, samples.length);
+        return copy;
+    }
+
+    /**
+     * Write the buffer as a binary PPM image (P6): 8 bits colors quantized as by {@link #quantize(int[])},
+     * rows from top to bottom. The rows are written directly from the buffer to the channel.
+     *
+     * @param channel the channel of the file
+     * @throws IOException if the writing fails
+     */
+    public void writePpm(WritableByteChannel channel) throws IOException {
+        writeFully(channel, ByteBuffer.wrap(("P6\n" + nX + " " + nY + "\n255\n").getBytes(StandardCharsets.US_ASCII)));
+        ByteBuffer row = ByteBuffer.allocateDirect(3 * nX);
+        for (int y = 0; y < nY; ++y) {
+            row.clear();
+            long first = (long) y * nX;
+            for (int x = 0; x < nX; ++x) {
+                int rgb = quantize(first + x);
+                row.put((byte) (rgb >> 16)).put((byte) (rgb >> 8)).put((byte) rgb);
+            }
+            row.flip();
+            writeFully(channel, row);
+        }
+    }
+
+    /**
+     * Write the buffer as a PFM image (portable float map, color): the average of the samples
+     * of each pixel as little-endian floats, without any limit (255 is written 1.0),
+     * rows from bottom to top as in the format. The rows are written directly from the buffer to the channel.
+     *
+     * @param channel the channel of the file
+     * @throws IOException if the writing fails
+     */
+    public void writePfm(WritableByteChannel channel) throws IOException {
+        // a negative scale means little-endian
+        writeFully(channel, ByteBuffer.wrap(("PF\n" + nX + " " + nY + "\n-1.0\n").getBytes(StandardCharsets.US_ASCII)));
+        ByteBuffer row = ByteBuffer.allocateDirect(12 * nX).order(ByteOrder.LITTLE_ENDIAN);
+        for (int y = nY - 1; y >= 0; --y) {
+            row.clear();
+            for (long pixel = (long) y * nX, end = pixel + nX; pixel < end; ++pixel) {
+                double scale = 1d / (255 * Math.max(1, samples(pixel)));
+                for (int channelIndex = 0; channelIndex < 3; ++channelIndex)
+                    row.putFloat((float) (radiance(pixel, channelIndex) * scale));
+            }
+            row.flip();
+            writeFully(channel, row);
+        }
+    }
+
+    /**
+     * Write all the bytes of a buffer to a channel
+     *
+     * @param channel the channel
+     * @param buffer  the bytes
+     * @throws IOException if the writing fails
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
@@ -0,0 +1,173 @@
+package renderer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Output stage that compresses and writes the images on background threads,
+ * so the render of the next frame of an animation doesn't wait for the png compression
+ * (see {@link ImageWriter#writeToImage(ImageEncoder)}).
+ * The number of images waiting or being written is bounded: when it is reached, the render
+ * thread waits for an image to be written (backpressure), and the number and the time of
+ * these waits are counted, so a batch can tell whether it needs more encoding threads.
+ * {@link #close()} writes all the images submitted before it returns.
+ */
+public class ImageEncoder implements AutoCloseable {
+
+    /**
+     * Threads of the encoding
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Free places for images (waiting or being written)
+     */
+    private final Semaphore places;
+
+    /**
+     * Maximal number of images waiting or being written
+     */
+    private final int capacity;
+
+    /**
+     * Number of submissions that waited for a free place
+     */
+    private final LongAdder stallsCount = new LongAdder();
+
+    /**
+     * Total time of the waits for a free place in nanoseconds
+     */
+    private final LongAdder stallTime = new LongAdder();
+
+    /**
+     * First error of a writing, thrown by close
+     */
+    private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+
+    private final Logger logger = Logger.getLogger("ImageEncoder");
+
+    /**
+     * Constructor of ImageEncoder
+     *
+     * @param threadsCount number of encoding threads
+     * @param capacity     maximal number of images waiting or being written (at least the number of threads)
+     */
+    public ImageEncoder(int threadsCount, int capacity) {
+        if (threadsCount < 1)
+            throw new IllegalArgumentException("The encoder needs at least one thread");
+        if (capacity < threadsCount)
+            throw new IllegalArgumentException("The capacity must be at least the number of threads");
+        this.capacity = capacity;
+        places = new Semaphore(capacity);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threadsCount, task -> {
+            Thread thread = new Thread(task, "image-encoder-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submit the writing of an image; if the encoder is full, wait for a free place.
+     * The writing is prepared (e.g. the frame is copied) only when the place is taken,
+     * so a submission waiting for a place doesn't keep a copy of the frame.
+     *
+     * @param preparation preparation of the writing of the image, called on the calling thread
+     * @return the future of the writing
+     */
+    Future<?> submit(Supplier<Runnable> preparation) {
+        if (!places.tryAcquire()) {
+            stallsCount.increment();
+            long start = System.nanoTime();
+            places.acquireUninterruptibly();
+            stallTime.add(System.nanoTime() - start);
+        }
+        Runnable writing;
+        try {
+            writing = preparation.get();
+        } catch (RuntimeException e) {
+            places.release();
+            throw e;
+        }
+        try {
+            return executor.submit(() -> {
+                try {
+                    writing.run();
+                } catch (RuntimeException e) {
+                    error.compareAndSet(null, e);
+                    throw e;
+                } finally {
+                    places.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // the encoder is closed
+            places.release();
+            throw new IllegalStateException("The encoder is closed", e);
+        }
+    }
+
+    /**
+     * Getter for the number of images waiting or being written
+     *
+     * @return number of images
+     */
+    public int getPendingCount() {
+        return capacity - places.availablePermits();
+    }
+
+    /**
+     * Getter for the number of submissions that waited for a free place (backpressure)
+     *
+     * @return number of waits
+     */
+    public long getStallsCount() {
+        return stallsCount.sum();
+    }
+
+    /**
+     * Getter for the total time of the waits for a free place
+     *
+     * @return time in nanoseconds
+     */
+    public long getStallTime() {
+        return stallTime.sum();
+    }
+
+    /**
+     * Wait until all the images submitted are written
+     */
+    public void flush() {
+        places.acquireUninterruptibly(capacity);
+        places.release(capacity);
+    }
+
+    /**
+     * Write all the images submitted and stop the threads
+     *
+     * @throws IllegalStateException if the writing of an image failed
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+                logger.log(Level.INFO, "Waiting for {0} images", getPendingCount());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the images", e);
+        }
+        RuntimeException failure = error.get();
+        if (failure != null)
+            throw new IllegalStateException("The writing of an image failed", failure);
+    }
+}
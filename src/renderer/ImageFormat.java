@@ -0,0 +1,44 @@
+package renderer;
+
+/**
+ * Format of the files written by an {@link ImageWriter}
+ */
+public enum ImageFormat {
+    /**
+     * Compressed 8 bits image (the default)
+     */
+    PNG("png"),
+
+    /**
+     * Binary PPM (P6): raw 8 bits colors, without any compression
+     */
+    PPM("ppm"),
+
+    /**
+     * Portable float map: the radiance of the frame buffer as floats, without any limit
+     */
+    PFM("pfm");
+
+    /**
+     * Extension of the files
+     */
+    private final String extension;
+
+    /**
+     * Constructor of ImageFormat
+     *
+     * @param extension extension of the files
+     */
+    ImageFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Getter for the extension of the files
+     *
+     * @return the extension (without dot)
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -2,16 +2,18 @@ package renderer;
 
 import primitives.Color;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Image writer class combines accumulation of pixel color matrix and finally
- * producing a non-optimized jpeg image from this matrix. The class although is
+ * producing a png image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
  * size and resolution
  *
@@ -19,10 +21,30 @@ import java.util.logging.Logger;
  */
 public class ImageWriter {
     private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
+    /**
+     * Size in bytes of the rows of a band given to the png encoder when the whole image is written
+     */
+    private static final int BAND_BYTES = 1 << 18;
     private int nX;
     private int nY;
-    private BufferedImage image;
+    /**
+     * Radiance of the pixels, written by writePixel and addSample so that
+     * many render threads can write the pixels without any lock
+     */
+    private final FrameBuffer frameBuffer;
     private String imageName;
+    /**
+     * Format of the file, PNG by default
+     */
+    private ImageFormat format = ImageFormat.PNG;
+    /**
+     * File of the png image streamed during the render, null when the image isn't streamed
+     */
+    private FileChannel streamChannel;
+    /**
+     * Encoder of the png image streamed during the render
+     */
+    private PngStream stream;
 
     private Logger logger = Logger.getLogger("ImageWriter");
 
@@ -36,11 +58,22 @@ public class ImageWriter {
      * @param nY        amount of pixels by height
      */
     public ImageWriter(String imageName, int nX, int nY) {
-        this.imageName = imageName;
-        this.nX = nX;
-        this.nY = nY;
+        this(imageName, new FrameBuffer(nX, nY));
+    }
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+    /**
+     * Image Writer constructor accepting image name and the frame buffer of the pixels,
+     * e.g. a {@link MappedFrameBuffer} for an image too big for the heap (written as PPM or PFM,
+     * which are written row by row from the buffer)
+     *
+     * @param imageName   the name of the file
+     * @param frameBuffer the frame buffer, its size is the View Plane resolution
+     */
+    public ImageWriter(String imageName, FrameBuffer frameBuffer) {
+        this.imageName = imageName;
+        this.frameBuffer = frameBuffer;
+        nX = frameBuffer.getNx();
+        nY = frameBuffer.getNy();
     }
 
     // ***************** Getters/Setters ********************** //
@@ -63,32 +96,213 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * Getter for the frame buffer with the radiance of the pixels (not limited to 255)
+     *
+     * @return the frame buffer
+     */
+    public FrameBuffer getFrameBuffer() {
+        return frameBuffer;
+    }
+
+    /**
+     * Setter for the format of the file: PNG (the default), or raw PPM or PFM which are written
+     * directly from the frame buffer without any compression
+     *
+     * @param format the format
+     * @return the image writer itself
+     */
+    public ImageWriter setFormat(ImageFormat format) {
+        if (format == null)
+            throw new IllegalArgumentException("The format must not be null");
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Getter for the format of the file
+     *
+     * @return the format
+     */
+    public ImageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Checks whether the png image is streamed (between {@link #startStream()} and {@link #writeToImage()}):
+     * the rows already given to the stream can't be changed any more
+     *
+     * @return true if the image is streamed
+     */
+    public boolean isStreamed() {
+        return stream != null;
+    }
+
     // ***************** Operations ******************** //
 
     /**
-     * Function writeToImage produces unoptimized png file of the image according to
-     * pixel color matrix in the directory of the project
+     * Function writeToImage produces a file of the image in the format of the writer
+     * (png by default) according to pixel color matrix in the directory of the project.
+     * If the image is streamed, it ends the png file.
      */
     public void writeToImage() {
+        if (stream == null) {
+            write(frameBuffer, format);
+            return;
+        }
+        PngStream png = stream;
+        FileChannel channel = streamChannel;
+        stream = null;
+        streamChannel = null;
+        try (channel) {
+            png.finish();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+        }
+    }
+
+    /**
+     * Function writeToImage that gives the image to an encoder, which writes it on a
+     * background thread: the frame buffer is copied, so the render can go on (e.g. with the
+     * next frame of an animation) while the image is compressed and written.
+     * If the encoder is full, it waits for a free place before the frame buffer is copied.
+     * A {@link MappedFrameBuffer} is not copied: it is written directly from its file on the
+     * calling thread, and the returned future is already done.
+     *
+     * @param encoder the encoder
+     * @return the future of the writing, done when the file is written
+     */
+    public Future<?> writeToImage(ImageEncoder encoder) {
+        if (stream != null)
+            throw new IllegalStateException("The image is streamed, it is ended by writeToImage()");
+        ImageFormat imageFormat = format;
+        if (frameBuffer instanceof MappedFrameBuffer) {
+            write(frameBuffer, imageFormat);
+            return CompletableFuture.completedFuture(null);
+        }
+        return encoder.submit(() -> {
+            FrameBuffer copy = frameBuffer.copy();
+            return () -> write(copy, imageFormat);
+        });
+    }
+
+    /**
+     * Start to stream the png image: the rows given to {@link #writeRows(int, int)} during the render
+     * are compressed and written to the file at once, and {@link #writeToImage()} ends the file.
+     * The rows must not change after they are given.
+     *
+     * @return the image writer itself
+     */
+    public ImageWriter startStream() {
+        if (format != ImageFormat.PNG)
+            throw new IllegalStateException("Only png images can be streamed");
+        if (stream != null)
+            throw new IllegalStateException("The image is already streamed");
         try {
-            File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-            ImageIO.write(image, "png", file);
+            streamChannel = open(ImageFormat.PNG);
+            stream = new PngStream(streamChannel, nX, nY);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+        }
+        return this;
+    }
+
+    /**
+     * Give finished rows to the png image if it is streamed (else nothing is done).
+     * It is safe to call it from several threads, for distinct rows.
+     *
+     * @param first first row
+     * @param end   row after the last row
+     */
+    public void writeRows(int first, int end) {
+        PngStream png = stream;
+        if (png == null)
+            return;
+        int[] band = new int[(end - first) * nX];
+        for (int y = first; y < end; ++y)
+            frameBuffer.quantizeRow(y, band, (y - first) * nX);
+        png.writeBand(first, end - first, band, 0);
+    }
+
+    /**
+     * Open the file of this writer
+     *
+     * @param imageFormat the format of the file
+     * @return the channel of the file
+     * @throws IOException if the file can't be opened
+     */
+    private FileChannel open(ImageFormat imageFormat) throws IOException {
+        Path path = Path.of(FOLDER_PATH, imageName + '.' + imageFormat.getExtension());
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Write a frame buffer in the file of this writer, through a file channel, row by row
+     * (the png image is compressed by bands in parallel)
+     *
+     * @param buffer      the frame buffer
+     * @param imageFormat the format of the file
+     */
+    private void write(FrameBuffer buffer, ImageFormat imageFormat) {
+        try (FileChannel channel = open(imageFormat)) {
+            switch (imageFormat) {
+                case PFM -> buffer.writePfm(channel);
+                case PPM -> buffer.writePpm(channel);
+                default -> writePng(buffer, channel);
+            }
         } catch (IOException e) {
             logger.log(Level.SEVERE, "I/O error", e);
             throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
         }
     }
 
+    /**
+     * Write a frame buffer as a png image, by bands of rows
+     *
+     * @param buffer  the frame buffer
+     * @param channel the channel of the file
+     * @throws IOException if the writing fails
+     */
+    private void writePng(FrameBuffer buffer, FileChannel channel) throws IOException {
+        PngStream png = new PngStream(channel, nX, nY);
+        int rowsCount = Math.max(1, BAND_BYTES / (3 * nX));
+        for (int first = 0; first < nY; first += rowsCount) {
+            int end = Math.min(first + rowsCount, nY);
+            int[] band = new int[(end - first) * nX];
+            for (int y = first; y < end; ++y)
+                buffer.quantizeRow(y, band, (y - first) * nX);
+            png.writeBand(first, end - first, band, 0);
+        }
+        png.finish();
+    }
+
     /**
      * The function writePixel writes a color of a specific pixel into pixel color
-     * matrix
+     * matrix.
+     * It is safe to call it from several threads as long as each pixel is written by one thread.
+     * The color is kept without limit, and converted to 8 bits when the image is written.
      *
      * @param xIndex X axis index of the pixel
      * @param yIndex Y axis index of the pixel
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        frameBuffer.setPixel(xIndex, yIndex, color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    /**
+     * Add a sample to the color of a pixel: the color of the pixel is the average of its samples.
+     * It is safe to call it from several threads for the same pixel.
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  color of the sample
+     */
+    public void addSample(int xIndex, int yIndex, Color color) {
+        frameBuffer.addSample(xIndex, yIndex, color.getRed(), color.getGreen(), color.getBlue());
     }
 
 }
@@ -0,0 +1,261 @@
+package renderer;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Frame buffer kept in a memory-mapped file instead of the heap, for renders too big for the heap
+ * (e.g. 30000 x 30000 pixels): the pixels are written in place in the file, and the operating system
+ * pages them in and out. Each pixel takes 16 bytes (red, green, blue radiance as floats, stored as in
+ * {@link FrameBuffer}, and the number of samples), and the file is mapped in chunks of whole rows
+ * since a mapping is limited to 2 GB.
+ * The pixels are written without any lock, as in {@link FrameBuffer}, and the image can be written
+ * from the file row by row (see {@link #writePpm} and {@link #writePfm}); the buffer is not copied.
+ * {@link #close()} unmaps the file at once (and deletes it if it is temporary), instead of waiting
+ * for the garbage collector.
+ */
+public class MappedFrameBuffer extends FrameBuffer implements AutoCloseable {
+
+    /**
+     * Access to the floats of a chunk with compare-and-set
+     */
+    private static final VarHandle FLOATS = MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.nativeOrder());
+
+    /**
+     * Access to the ints of a chunk with atomic add
+     */
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    /**
+     * Bytes of a pixel: red, green, blue, number of samples
+     */
+    private static final int PIXEL_BYTES = 16;
+
+    /**
+     * Default maximal size of a chunk in bytes
+     */
+    private static final long CHUNK_BYTES = 1L << 30;
+
+    /**
+     * Unmapping of a mapped buffer (Unsafe.invokeCleaner, the only way to unmap a file before the
+     * garbage collection), null if it isn't available
+     */
+    private static final MethodHandle UNMAP = unmapHandle();
+
+    /**
+     * The mapped chunks of the file, each of them with the same number of pixels (except the last),
+     * null after close
+     */
+    private final MappedByteBuffer[] chunks;
+
+    /**
+     * The temporary file, deleted by close, null for a file given by the user
+     */
+    private final Path temporary;
+
+    /**
+     * Number of pixels in a chunk (whole rows)
+     */
+    private final long chunkPixels;
+
+    /**
+     * Constructor of MappedFrameBuffer in a temporary file, deleted by {@link #close()}
+     *
+     * @param nX width in pixels
+     * @param nY height in pixels
+     */
+    public MappedFrameBuffer(int nX, int nY) {
+        this(nX, nY, null);
+    }
+
+    /**
+     * Constructor of MappedFrameBuffer in a file, all the pixels black without any sample
+     *
+     * @param nX   width in pixels
+     * @param nY   height in pixels
+     * @param file the file (replaced), or null for a temporary file
+     */
+    public MappedFrameBuffer(int nX, int nY, Path file) {
+        this(nX, nY, file, CHUNK_BYTES);
+    }
+
+    /**
+     * Constructor of MappedFrameBuffer in a file with a given size of the chunks
+     *
+     * @param nX         width in pixels
+     * @param nY         height in pixels
+     * @param file       the file (replaced), or null for a temporary file
+     * @param chunkBytes maximal size of a chunk in bytes (at least a row)
+     */
+    MappedFrameBuffer(int nX, int nY, Path file, long chunkBytes) {
+        super(nX, nY, false);
+        if ((long) PIXEL_BYTES * nX > Math.min(chunkBytes, Integer.MAX_VALUE))
+            throw new IllegalArgumentException("The rows of the frame buffer are too long");
+        long rowsCount = Math.min(nY, chunkBytes / ((long) PIXEL_BYTES * nX));
+        chunkPixels = rowsCount * nX;
+        long pixels = (long) nX * nY;
+        chunks = new MappedByteBuffer[(int) ((pixels + chunkPixels - 1) / chunkPixels)];
+        try {
+            // the temporary file is deleted when the channel is closed where the system allows it, else by close()
+            temporary = file == null ? Files.createTempFile("frame", ".buffer") : null;
+            FileChannel channel = file == null
+                    ? FileChannel.open(temporary, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)
+                    : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // the mappings stay valid after the channel is closed
+            try (channel) {
+                for (int chunk = 0; chunk < chunks.length; ++chunk) {
+                    long first = chunk * chunkPixels;
+                    chunks[chunk] = channel.map(FileChannel.MapMode.READ_WRITE, first * PIXEL_BYTES,
+                            Math.min(chunkPixels, pixels - first) * PIXEL_BYTES);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map the frame buffer", e);
+        }
+    }
+
+    /**
+     * Handle of Unsafe.invokeCleaner(ByteBuffer)
+     *
+     * @return the handle, null if it isn't available
+     */
+    private static MethodHandle unmapHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Chunk of a pixel
+     *
+     * @param pixel index of the pixel
+     * @return the chunk
+     * @throws IllegalStateException if the buffer is closed
+     */
+    private MappedByteBuffer chunk(long pixel) {
+        MappedByteBuffer chunk = chunks[(int) (pixel / chunkPixels)];
+        if (chunk == null)
+            throw new IllegalStateException("The frame buffer is closed");
+        return chunk;
+    }
+
+    /**
+     * Position of a pixel in its chunk
+     *
+     * @param pixel index of the pixel
+     * @return offset of the red radiance in bytes
+     */
+    private int offset(long pixel) {
+        return (int) (pixel % chunkPixels) * PIXEL_BYTES;
+    }
+
+    @Override
+    void store(long pixel, double r, double g, double b) {
+        ByteBuffer chunk = chunk(pixel);
+        int offset = offset(pixel);
+        FLOATS.set(chunk, offset, toFloat(r));
+        FLOATS.set(chunk, offset + 4, toFloat(g));
+        FLOATS.set(chunk, offset + 8, toFloat(b));
+        INTS.set(chunk, offset + 12, 1);
+    }
+
+    @Override
+    void accumulate(long pixel, double r, double g, double b) {
+        ByteBuffer chunk = chunk(pixel);
+        int offset = offset(pixel);
+        add(chunk, offset, (float) r);
+        add(chunk, offset + 4, (float) g);
+        add(chunk, offset + 8, (float) b);
+        INTS.getAndAdd(chunk, offset + 12, 1);
+    }
+
+    /**
+     * Atomic addition to a float of a chunk (compare-and-set loop)
+     *
+     * @param chunk  the chunk
+     * @param offset position of the float in bytes
+     * @param value  value added
+     */
+    private static void add(ByteBuffer chunk, int offset, float value) {
+        float current;
+        do {
+            current = (float) FLOATS.getVolatile(chunk, offset);
+        } while (!FLOATS.weakCompareAndSet(chunk, offset, current, current + value));
+    }
+
+    @Override
+    double radiance(long pixel, int channel) {
+        return (float) FLOATS.get(chunk(pixel), offset(pixel) + 4 * channel);
+    }
+
+    @Override
+    int samples(long pixel) {
+        return (int) INTS.get(chunk(pixel), offset(pixel) + 12);
+    }
+
+    /**
+     * A mapped buffer is not copied: it is too big for the heap, and a copy would need another
+     * file of the same size. It is written directly from the file instead
+     * (see {@link ImageWriter#writeToImage(ImageEncoder)}).
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public FrameBuffer copy() {
+        throw new UnsupportedOperationException("A mapped frame buffer is not copied, it is written directly");
+    }
+
+    /**
+     * Write the pixels to the storage device of the file (the operating system writes them anyway,
+     * but without this, at a time of its choice)
+     */
+    public void force() {
+        for (int chunk = 0; chunk < chunks.length; ++chunk)
+            chunk(chunk * chunkPixels).force();
+    }
+
+    /**
+     * Unmap the file and delete it if it is temporary. The buffer must not be used any more,
+     * and no thread may use it during the close (the memory of the mapping is released at once).
+     * If the mappings can't be released at once, they are released by the garbage collector.
+     */
+    @Override
+    public void close() {
+        for (int chunk = 0; chunk < chunks.length; ++chunk) {
+            MappedByteBuffer mapping = chunks[chunk];
+            chunks[chunk] = null;
+            if (mapping != null && UNMAP != null)
+                try {
+                    UNMAP.invokeExact((ByteBuffer) mapping);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Failed to unmap the frame buffer", e);
+                }
+        }
+        if (temporary != null)
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to delete the frame buffer", e);
+            }
+    }
+}
@@ -0,0 +1,352 @@
+package renderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming png encoder: the image is given by bands of rows, e.g. as soon as the render has finished them,
+ * and each band is filtered and compressed on its own in the common fork/join pool, so several bands are
+ * compressed in parallel and the whole image is never kept by the encoder.
+ * Each band is compressed to a part of the deflate stream ended by a sync flush, so the parts can simply be
+ * concatenated; the parts are written to the channel in the order of the rows (a band waits for the bands
+ * above it), one IDAT chunk for each band, and the Adler-32 of the zlib stream is combined from the bands.
+ * The rows are filtered with the Sub filter, which doesn't need the previous row (another band).
+ * A band far below the rows already written waits until they come closer (see {@link #writeBand}), so the
+ * bands waiting for the bands above them don't fill the memory.
+ */
+public class PngStream {
+
+    /**
+     * Signature of the png files
+     */
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * Header of the zlib stream: deflate with a 32K window, default compression
+     */
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+
+    /**
+     * Modulo of the Adler-32 sums
+     */
+    private static final int ADLER_BASE = 65521;
+
+    /**
+     * Size in bytes of the filtered rows admitted below the rows already written, by default
+     */
+    private static final int WINDOW_BYTES = 1 << 26;
+
+    /**
+     * Channel of the file
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * Resolution of the image
+     */
+    private final int nX, nY;
+
+    /**
+     * Compressed bands waiting for the bands above them, by their first row
+     */
+    private final Map<Integer, Band> waiting = new HashMap<>();
+
+    /**
+     * Number of rows after the first row not written yet where a band may start, the bands farther
+     * wait, so the bands being compressed or waiting for the bands above them don't fill the memory
+     */
+    private final int windowRows;
+
+    /**
+     * Compressions of the bands
+     */
+    private final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+    /**
+     * First row not written yet in the file
+     */
+    private int nextRow = 0;
+
+    /**
+     * Adler-32 of the rows written in the file
+     */
+    private long adler = 1;
+
+    /**
+     * First error of the compression or of the writing
+     */
+    private final AtomicReference<Exception> error = new AtomicReference<>();
+
+    /**
+     * Compressed band of rows
+     *
+     * @param rowsCount number of rows
+     * @param data      deflated filtered rows, ended by a sync flush
+     * @param adler     Adler-32 of the filtered rows
+     * @param length    length of the filtered rows in bytes
+     */
+    private record Band(int rowsCount, byte[] data, long adler, long length) {
+    }
+
+    /**
+     * Constructor of PngStream, writes the header of the image
+     *
+     * @param channel channel of the file
+     * @param nX      width in pixels
+     * @param nY      height in pixels
+     * @throws IOException if the writing fails
+     */
+    public PngStream(WritableByteChannel channel, int nX, int nY) throws IOException {
+        this(channel, nX, nY, Math.max(1, WINDOW_BYTES / (3 * nX + 1)));
+    }
+
+    /**
+     * Constructor of PngStream with the size of the window of the bands, writes the header of the image
+     *
+     * @param channel    channel of the file
+     * @param nX         width in pixels
+     * @param nY         height in pixels
+     * @param windowRows number of rows after the first row not written yet where a band may start
+     * @throws IOException if the writing fails
+     */
+    PngStream(WritableByteChannel channel, int nX, int nY, int windowRows) throws IOException {
+        if (nX <= 0 || nY <= 0)
+            throw new IllegalArgumentException("The size of the image must be positive");
+        if (windowRows <= 0)
+            throw new IllegalArgumentException("The window must contain rows");
+        this.windowRows = windowRows;
+        this.channel = channel;
+        this.nX = nX;
+        this.nY = nY;
+        write(ByteBuffer.wrap(SIGNATURE));
+        // 8 bits RGB, deflate, adaptive filters, no interlace
+        writeChunk("IHDR", ByteBuffer.allocate(13).putInt(nX).putInt(nY)
+                .put((byte) 8).put((byte) 2).put((byte) 0).put((byte) 0).put((byte) 0).array());
+    }
+
+    /**
+     * Give a band of rows to the encoder, compressed on another thread. The bands may be given in any order
+     * and from several threads, but each row exactly once. A band starting too far below the first row
+     * not written yet waits until the rows above it are written, so each thread must give its bands
+     * in the order of the rows. A thread of a fork/join pool waits as a managed blocker, so the pool
+     * keeps threads for the compressions and for the bands above.
+     *
+     * @param firstRow  first row of the band
+     * @param rowsCount number of rows
+     * @param pixels    colors 0xRRGGBB of the rows, row by row
+     * @param offset    index of the first pixel in the array
+     */
+    public void writeBand(int firstRow, int rowsCount, int[] pixels, int offset) {
+        if (rowsCount <= 0 || firstRow < 0 || firstRow + rowsCount > nY)
+            throw new IllegalArgumentException("The band must be rows of the image");
+        if (offset < 0 || offset + rowsCount * nX > pixels.length)
+            throw new IllegalArgumentException("The array must contain all the pixels of the band");
+        admit(firstRow);
+        byte[] raw = filter(rowsCount, pixels, offset);
+        ForkJoinTask<?> task = ForkJoinPool.commonPool().submit(() -> {
+            try {
+                Adler32 checksum = new Adler32();
+                checksum.update(raw);
+                add(firstRow, new Band(rowsCount, deflate(raw), checksum.getValue(), raw.length));
+            } catch (IOException | RuntimeException e) {
+                error.compareAndSet(null, e);
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        });
+        synchronized (tasks) {
+            tasks.add(task);
+        }
+    }
+
+    /**
+     * Wait until a band is in the window of the rows not written yet (or until a band failed)
+     *
+     * @param firstRow first row of the band
+     */
+    private void admit(int firstRow) {
+        ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                synchronized (PngStream.this) {
+                    while (!isReleasable())
+                        PngStream.this.wait();
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                synchronized (PngStream.this) {
+                    return firstRow - nextRow < windowRows || error.get() != null;
+                }
+            }
+        };
+        boolean interrupted = false;
+        while (true)
+            try {
+                ForkJoinPool.managedBlock(blocker);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Wait for the compression of all the bands and end the file (the channel is not closed)
+     *
+     * @throws IOException if the writing fails
+     */
+    public void finish() throws IOException {
+        List<ForkJoinTask<?>> all;
+        synchronized (tasks) {
+            all = new ArrayList<>(tasks);
+        }
+        for (ForkJoinTask<?> task : all)
+            task.join();
+        Exception failure = error.get();
+        if (failure instanceof IOException e)
+            throw e;
+        if (failure != null)
+            throw new IllegalStateException("The compression of the image failed", failure);
+        synchronized (this) {
+            if (nextRow != nY)
+                throw new IllegalStateException("Missing rows from the row " + nextRow);
+            // empty final block of the deflate stream, then the Adler-32 of the zlib stream
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.finish();
+            byte[] end = new byte[16];
+            int length = deflater.deflate(end);
+            deflater.end();
+            writeChunk("IDAT", ByteBuffer.allocate(length + 4).put(end, 0, length).putInt((int) adler).array());
+            writeChunk("IEND", new byte[0]);
+        }
+    }
+
+    /**
+     * Filter the rows of a band with the Sub filter: each byte minus the same component of the pixel on its left
+     *
+     * @param rowsCount number of rows
+     * @param pixels    colors of the rows
+     * @param offset    index of the first pixel in the array
+     * @return the filtered rows, each of them after its filter type
+     */
+    private byte[] filter(int rowsCount, int[] pixels, int offset) {
+        byte[] raw = new byte[rowsCount * (3 * nX + 1)];
+        int index = 0;
+        for (int row = 0; row < rowsCount; ++row) {
+            raw[index++] = 1;
+            int left = 0;
+            for (int x = 0; x < nX; ++x) {
+                int rgb = pixels[offset + row * nX + x];
+                raw[index++] = (byte) ((rgb >> 16) - (left >> 16));
+                raw[index++] = (byte) ((rgb >> 8) - (left >> 8));
+                raw[index++] = (byte) (rgb - left);
+                left = rgb;
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * Compress filtered rows to a part of the deflate stream
+     *
+     * @param raw the filtered rows
+     * @return the compressed bytes, ended by a sync flush
+     */
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(raw);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[1 << 16];
+        int length;
+        do {
+            length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            out.write(buffer, 0, length);
+        } while (length == buffer.length);
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /**
+     * Add a compressed band, and write all the bands that follow the rows already written
+     *
+     * @param firstRow first row of the band
+     * @param band     the band
+     * @throws IOException if the writing fails
+     */
+    private synchronized void add(int firstRow, Band band) throws IOException {
+        waiting.put(firstRow, band);
+        for (Band next = waiting.remove(nextRow); next != null; next = waiting.remove(nextRow)) {
+            ByteBuffer data = ByteBuffer.allocate(next.data.length + (nextRow == 0 ? ZLIB_HEADER.length : 0));
+            if (nextRow == 0)
+                data.put(ZLIB_HEADER);
+            writeChunk("IDAT", data.put(next.data).array());
+            adler = combine(adler, next.adler, next.length);
+            nextRow += next.rowsCount;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Adler-32 of the concatenation of 2 sequences of bytes (as adler32_combine of zlib)
+     *
+     * @param adler1  Adler-32 of the first sequence
+     * @param adler2  Adler-32 of the second sequence
+     * @param length2 length of the second sequence
+     * @return Adler-32 of the concatenation
+     */
+    static long combine(long adler1, long adler2, long length2) {
+        long remainder = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = remainder * sum1 % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += (adler1 >> 16) + (adler2 >> 16) + ADLER_BASE - remainder;
+        sum1 %= ADLER_BASE;
+        sum2 %= ADLER_BASE;
+        return sum2 << 16 | sum1;
+    }
+
+    /**
+     * Write a chunk of the png file: length, type, data and CRC
+     *
+     * @param type type of the chunk
+     * @param data data of the chunk
+     * @throws IOException if the writing fails
+     */
+    private void writeChunk(String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        write(ByteBuffer.allocate(data.length + 12).putInt(data.length).put(typeBytes).put(data)
+                .putInt((int) crc.getValue()).flip());
+    }
+
+    /**
+     * Write all the bytes of a buffer to the channel
+     *
+     * @param buffer the bytes
+     * @throws IOException if the writing fails
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
@@ -0,0 +1,169 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * Generator of the rays from the camera through the pixels of the View Plane.
+ * Everything that doesn't depend on the pixel (center of the View Plane, size of a pixel,
+ * directions of the camera) is calculated once when the generator is created, and each
+ * ray is then calculated with primitive coordinates, without intermediate points and vectors.
+ * The rays are the same as the rays of {@link Camera#constructRay(int, int, int, int)}.
+ */
+public class RayGenerator {
+
+    /**
+     * Position of the camera
+     */
+    private final Point p0;
+
+    /**
+     * Coordinates of the position of the camera
+     */
+    private final double p0x, p0y, p0z;
+
+    /**
+     * Coordinates of the center of the View Plane
+     */
+    private final double pcx, pcy, pcz;
+
+    /**
+     * Coordinates of the vector vRight of the camera
+     */
+    private final double rightX, rightY, rightZ;
+
+    /**
+     * Coordinates of the vector vUp of the camera
+     */
+    private final double upX, upY, upZ;
+
+    /**
+     * Width and height of a pixel
+     */
+    private final double rx, ry;
+
+    /**
+     * Index of the center of the View Plane in columns and in rows
+     */
+    private final double centerJ, centerI;
+
+    /**
+     * Resolution of the View Plane
+     */
+    private final int nX, nY;
+
+    /**
+     * Constructor of RayGenerator for the View Plane of a camera
+     *
+     * @param camera the camera
+     * @param nX     amount of columns
+     * @param nY     amount of rows
+     */
+    public RayGenerator(Camera camera, int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        p0 = camera.getP0();
+        p0x = p0.getX();
+        p0y = p0.getY();
+        p0z = p0.getZ();
+
+        Vector vTo = camera.getVTo();
+        double distance = camera.getDistance();
+        pcx = p0x + vTo.getX() * distance;
+        pcy = p0y + vTo.getY() * distance;
+        pcz = p0z + vTo.getZ() * distance;
+
+        Vector vRight = camera.getVRight();
+        rightX = vRight.getX();
+        rightY = vRight.getY();
+        rightZ = vRight.getZ();
+        Vector vUp = camera.getVUp();
+        upX = vUp.getX();
+        upY = vUp.getY();
+        upZ = vUp.getZ();
+
+        rx = camera.getWidth() / nX;
+        ry = camera.getHeight() / nY;
+        centerJ = (nX - 1) / 2d;
+        centerI = (nY - 1) / 2d;
+    }
+
+    /**
+     * Ray through a point of the View Plane given in pixel coordinates:
+     * (j, i) is the center of the pixel in column j and row i, and fractional values
+     * give the other points of the pixel (e.g. j - 0.5 is its left side)
+     *
+     * @param j column
+     * @param i row
+     * @return the ray
+     */
+    public Ray constructRay(double j, double i) {
+        double xj = (j - centerJ) * rx;
+        double yi = -(i - centerI) * ry;
+
+        double x = pcx, y = pcy, z = pcz;
+        if (!isZero(xj)) {
+            x += rightX * xj;
+            y += rightY * xj;
+            z += rightZ * xj;
+        }
+        if (!isZero(yi)) {
+            x += upX * yi;
+            y += upY * yi;
+            z += upZ * yi;
+        }
+        return new Ray(p0, x - p0x, y - p0y, z - p0z);
+    }
+
+    /**
+     * Calculate the directions of the rays through the centers of the pixels of a part of a row,
+     * into an array that can be reused for every row. The directions aren't normalized, so
+     * {@link Ray#Ray(Point, double, double, double)} gives exactly the rays of {@link #constructRay(double, double)}.
+     *
+     * @param i          row
+     * @param jStart     first column
+     * @param jEnd       column after the last column
+     * @param directions array of 3 (jEnd - jStart) coordinates receiving the directions
+     *                   (x, y, z of the pixel j at 3(j - jStart), 3(j - jStart) + 1, 3(j - jStart) + 2)
+     */
+    public void constructDirections(int i, int jStart, int jEnd, double[] directions) {
+        if (jStart < 0 || jEnd > nX || jStart >= jEnd)
+            throw new IllegalArgumentException("The columns must be a part of the row");
+        if (directions.length < 3 * (jEnd - jStart))
+            throw new IllegalArgumentException("The array must contain 3 coordinates for each pixel");
+
+        double yi = -(i - centerI) * ry;
+        boolean row = !isZero(yi);
+        for (int j = jStart, index = 0; j < jEnd; ++j, index += 3) {
+            double xj = (j - centerJ) * rx;
+            double x = pcx, y = pcy, z = pcz;
+            if (!isZero(xj)) {
+                x += rightX * xj;
+                y += rightY * xj;
+                z += rightZ * xj;
+            }
+            if (row) {
+                x += upX * yi;
+                y += upY * yi;
+                z += upZ * yi;
+            }
+            directions[index] = x - p0x;
+            directions[index + 1] = y - p0y;
+            directions[index + 2] = z - p0z;
+        }
+    }
+
+    /**
+     * Checks whether the generator is for a resolution of the View Plane
+     *
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @return true if the generator was created for this resolution
+     */
+    boolean hasResolution(int nX, int nY) {
+        return this.nX == nX && this.nY == nY;
+    }
+}
@@ -1,22 +1,26 @@
 package renderer;
 
 import geometries.Intersectable.*;
+import lighting.AreaLight;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
-import java.util.List;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 public class RayTracerBasic extends RayTracerBase {
 
     /**
-     * the const value of the maximum amount of recursion in calculating refracted and reflected rays
+     * the default value of the maximum amount of recursion in calculating refracted and reflected rays
      */
     private static final int MAX_CALC_COLOR_LEVEL = 10;
 
     /**
-     * the const value for the stopping condition in the recursion
+     * the default value for the stopping condition in the recursion
      */
     private static final double MIN_CALC_COLOR_K = 0.001;
 
@@ -25,6 +29,39 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private static final Double3 INITIAL_K = Double3.ONE;
 
+    /**
+     * Golden angle, the angle between 2 consecutive rays of a beam (the rays are on a spiral)
+     */
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+    /**
+     * Maximal number of rays of a beam of glossy reflection or blurry refraction
+     */
+    private int beamSize = 32;
+
+    /**
+     * Maximum amount of recursion in calculating refracted and reflected rays
+     */
+    private int maxLevel = MAX_CALC_COLOR_LEVEL;
+
+    /**
+     * Stopping condition in the recursion: the rays whose attenuation is lower are not traced
+     */
+    private double minK = MIN_CALC_COLOR_K;
+
+    /**
+     * Attenuation under which the rays are traced only with a probability (Russian roulette),
+     * 0 for no Russian roulette
+     */
+    private double rouletteK = 0;
+
+    /**
+     * Stack of the secondary rays waiting for their evaluation, one for each render thread.
+     * It is sized for a full depth of beams, so it doesn't grow in a usual render.
+     */
+    private final ThreadLocal<PathStack> stacks =
+            ThreadLocal.withInitial(() -> new PathStack(2 * beamSize * maxLevel));
+
     /**
      * Constructor of RayTracerBasic
      * @param scene the scene for our ray tracer
@@ -33,6 +70,66 @@ public class RayTracerBasic extends RayTracerBase {
         super(scene);
     }
 
+    /**
+     * Setter for the maximal number of rays of a beam of glossy reflection or blurry refraction.
+     * This number of rays is used for the rays from the camera, and the beams of the next levels
+     * get less rays, in proportion of their attenuation and of the remaining recursion levels.
+     *
+     * @param beamSize number of rays
+     * @return this
+     */
+    public RayTracerBasic setBeamSize(int beamSize) {
+        if (beamSize < 1)
+            throw new IllegalArgumentException("A beam needs at least one ray");
+        this.beamSize = beamSize;
+        return this;
+    }
+
+    /**
+     * Setter for the maximum amount of recursion in calculating refracted and reflected rays
+     *
+     * @param maxLevel number of levels, 1 for no reflections and refractions
+     * @return this
+     */
+    public RayTracerBasic setMaxLevel(int maxLevel) {
+        if (maxLevel < 1)
+            throw new IllegalArgumentException("The maximum level must be at least 1");
+        this.maxLevel = maxLevel;
+        return this;
+    }
+
+    /**
+     * Setter for the stopping condition in the recursion: the reflected and refracted rays
+     * whose accumulated attenuation is lower are not traced, and the lights whose
+     * attenuation is lower are not added
+     *
+     * @param minK minimal attenuation, between 0 and 1
+     * @return this
+     */
+    public RayTracerBasic setMinK(double minK) {
+        if (minK < 0 || minK >= 1)
+            throw new IllegalArgumentException("The minimal attenuation must be in [0, 1)");
+        this.minK = minK;
+        return this;
+    }
+
+    /**
+     * Setter for the Russian roulette: a reflected or refracted ray whose accumulated attenuation
+     * k is lower than rouletteK is traced only with a probability k / rouletteK, and its
+     * weight is then divided by this probability, so the expected color stays the same
+     * (the image is noisier, but the many rays of low contribution are mostly not traced).
+     * The random numbers come from the generator of the render thread.
+     *
+     * @param rouletteK attenuation under which the roulette is played, 0 for no Russian roulette
+     * @return this
+     */
+    public RayTracerBasic setRussianRoulette(double rouletteK) {
+        if (rouletteK < 0 || rouletteK > 1)
+            throw new IllegalArgumentException("The attenuation of the roulette must be in [0, 1]");
+        this.rouletteK = rouletteK;
+        return this;
+    }
+
     @Override
     public Color traceRay(Ray ray) {
 
@@ -53,11 +150,17 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color at the point
      */
     private Color calcColor(GeoPoint geopoint, Ray ray) {
-        return calcColor(geopoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
+        return calcColor(geopoint, ray, maxLevel, INITIAL_K)
                 .add(scene.ambientLight.getIntensity());
     }
 
     /**
+     * Color at a point with all the reflections and refractions under it.
+     * Instead of a recursion, the secondary rays are pushed on an explicit stack with their
+     * throughput weight (the product of the kR and kT along their path), and the color of each
+     * point they hit is added to the color with its weight. So the depth of the call stack
+     * doesn't depend on the recursion level, and the memory used is the stack of the thread.
+     *
      * @param geoPoint the point at which we want to calc the color
      * @param ray the ray hitting the geometry
      * @param level the level of recursion
@@ -65,11 +168,44 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color at the gp
      */
     private Color calcColor(GeoPoint geoPoint, Ray ray, int level, Double3 k) {
+        PathStack stack = stacks.get();
+        int bottom = stack.size;
+
+        Color color = calcPointColor(geoPoint, ray, level, k, Double3.ONE, stack);
+        while (stack.size > bottom) {
+            int top = --stack.size;
+            Ray secondaryRay = stack.rays[top];
+            int secondaryLevel = stack.levels[top];
+            Double3 secondaryK = stack.ks[top];
+            Double3 weight = stack.weights[top];
+            stack.rays[top] = null;
+
+            GeoPoint gp = findClosestIntersection(secondaryRay);
+            Color secondaryColor = gp == null ? scene.background
+                    : calcPointColor(gp, secondaryRay, secondaryLevel, secondaryK, weight, stack);
+            color = color.add(secondaryColor.scale(weight));
+        }
+        return color;
+    }
+
+    /**
+     * Color of the emission and of the lights at a point, the secondary rays from the point
+     * are pushed on the stack
+     *
+     * @param geoPoint the point at which we want to calc the color
+     * @param ray      the ray hitting the geometry
+     * @param level    the level of recursion
+     * @param k        the attenuation of the ray, for the stopping conditions
+     * @param weight   the throughput weight of the ray (its contribution to the pixel)
+     * @param stack    the stack of the secondary rays
+     * @return the color at the gp, without the secondary rays
+     */
+    private Color calcPointColor(GeoPoint geoPoint, Ray ray, int level, Double3 k, Double3 weight, PathStack stack) {
 
         Color color = geoPoint.geometry.getEmission();
 
         Vector v = ray.getDir();
-        Vector n = geoPoint.geometry.getNormal(geoPoint.point);
+        Vector n = geoPoint.geometry.getNormal(geoPoint);
 
         // check that ray is not parallel to geometry
         double nv = alignZero(n.dotProduct(v));
@@ -80,9 +216,9 @@ public class RayTracerBasic extends RayTracerBase {
         Material material = geoPoint.geometry.getMaterial();
         color = color.add(calcLocalEffects(geoPoint, material, n, v, nv, k));
 
-        return 1 == level ? color : color.add(
-                calcGlobalEffects(geoPoint, material, n, v, level, k)
-        );
+        if (level > 1)
+            pushGlobalEffects(geoPoint, material, n, v, level, k, weight, stack);
+        return color;
     }
 
     /**
@@ -104,7 +240,7 @@ public class RayTracerBasic extends RayTracerBase {
             double nl = alignZero(n.dotProduct(l));
             if (nl * nv > 0) { // sign(nl) == sign(nv)
                 Double3 ktr = transparency(lightSource, l, n, gp);
-                if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
+                if (!ktr.product(k).lowerThan(minK)) {
 //                if (unshaded(gp, lightSource, l, n)) {
                     Color iL = lightSource.getIntensity(point).scale(ktr);
                     color = color.add(
@@ -130,8 +266,11 @@ public class RayTracerBasic extends RayTracerBase {
     private Color calcSpecular(
             Double3 kS, Vector n, Vector l, double nl, Vector v, int shininess, Color intensity) {
 
-        Vector r = l.add(n.scale(-2 * nl)); // nl must not be zero!
-        double minusVR = -alignZero(r.dotProduct(v));
+        // r = l - 2(n.l)n, with the coordinates only
+        double scale = -2 * nl; // nl must not be zero!
+        double minusVR = -alignZero(VectorMath.dot(
+                l.getX() + n.getX() * scale, l.getY() + n.getY() * scale, l.getZ() + n.getZ() * scale,
+                v.getX(), v.getY(), v.getZ()));
 
         if (minusVR <= 0)
             return Color.BLACK; // view from direction opposite to r vector
@@ -157,6 +296,7 @@ public class RayTracerBasic extends RayTracerBase {
     }
 
     /**
+     * Push the reflected and refracted rays of a point on the stack
      *
      * @param gp        the point at which we calculate the color
      * @param material  instance to get the coefficients
@@ -164,39 +304,97 @@ public class RayTracerBasic extends RayTracerBase {
      * @param v         the ray hitting the geometry
      * @param level     the level of recursion
      * @param k         the parameter helping us calculate how much color each ray is giving to the final pixel
-     * @return the color at the gp
+     * @param weight    the throughput weight of the ray hitting the geometry
+     * @param stack     the stack of the secondary rays
      */
-    private Color calcGlobalEffects(
-            GeoPoint gp, Material material, Vector n, Vector v, int level, Double3 k) {
+    private void pushGlobalEffects(GeoPoint gp, Material material, Vector n, Vector v, int level, Double3 k,
+                                   Double3 weight, PathStack stack) {
 
-        Color color = Color.BLACK;
         Double3 kkr = material.getKr().product(k);
+        double survival = survival(kkr);
+        if (survival > 0)
+            pushBeam(gp.point, constructReflectedRay(gp.point, v, n), n, material.getGlossiness(),
+                    level, kkr, weight.product(material.getKr()).scale(1 / survival), stack);
 
-        if (!kkr.lowerThan(MIN_CALC_COLOR_K))
-            color = color.add(
-                    calcGlobalEffect(constructReflectedRay(gp.point, v, n), level, material.getKr(), kkr));
         Double3 kkt = material.kT.product(k);
-
-        if (!kkt.lowerThan(MIN_CALC_COLOR_K))
-            color = color.add(
-                    calcGlobalEffect(constructRefractedRay(gp.point, v, n), level, material.kT, kkt));
-        return color;
+        survival = survival(kkt);
+        if (survival > 0)
+            pushBeam(gp.point, constructRefractedRay(gp.point, v, n), n, material.getBlur(),
+                    level, kkt, weight.product(material.kT).scale(1 / survival), stack);
     }
 
+    /**
+     * Termination of a path: the probability with which a reflected or refracted ray is traced
+     *
+     * @param kkx the accumulated attenuation of the ray
+     * @return 0 if the ray is not traced, else the probability to trace it (1 if it is always traced)
+     */
+    private double survival(Double3 kkx) {
+        if (kkx.lowerThan(minK))
+            return 0;
+        double max = kkx.max();
+        if (max >= rouletteK)
+            return 1;
+        double probability = max / rouletteK;
+        return ThreadLocalRandom.current().nextDouble() < probability ? probability : 0;
+    }
 
     /**
-     * @param ray    the ray hitting the geometry
-     * @param level  the level of recursion if level == 1 we stop the recursion
-     * @param kx     the parameter helping us calculate how much color each ray is giving to the final pixel
-     * @param kkx    a parameter helping us stop the recursion is the effect of the recursion is too small to notice
-     * @return the color at the intersection with ray
+     * Push a beam of secondary rays in a cone around a ray (glossy reflection or blurry refraction),
+     * or the ray alone if the cone is empty.
+     * The number of rays shrinks with the attenuation kkx and with the recursion level, so the
+     * beams of deep levels, whose effect on the pixel is small, have few rays.
+     * The rays are on a spiral on the base of the cone (the golden angle between 2 rays),
+     * which covers the base evenly for any number of rays, and the rays that would cross the
+     * surface to the other side are not used. The rays share the weight of the beam.
+     *
+     * @param point  the point at the surface of the geometry
+     * @param ray    the axis of the cone (reflected or refracted ray)
+     * @param n      the normal to the surface of the geometry at the point
+     * @param spread radius of the base of the cone at distance 1 from the point, 0 for a single ray
+     * @param level  the level of recursion
+     * @param kkx    the accumulated attenuation of the effect
+     * @param weight the throughput weight of the beam
+     * @param stack  the stack of the secondary rays
      */
-    private Color calcGlobalEffect(Ray ray, int level, Double3 kx, Double3 kkx) {
+    private void pushBeam(Point point, Ray ray, Vector n, double spread,
+                          int level, Double3 kkx, Double3 weight, PathStack stack) {
+        int count = spread == 0 ? 1
+                : Math.max(1, (int) Math.ceil(beamSize * kkx.max() * level / maxLevel));
+        if (count == 1) {
+            stack.push(ray, level - 1, kkx, weight);
+            return;
+        }
 
-        GeoPoint gp = findClosestIntersection(ray);
-        return (gp == null ? scene.background : calcColor(gp, ray, level - 1, kkx)).scale(kx);
-    }
+        Vector dir = ray.getDir();
+        double side = alignZero(dir.dotProduct(n));
+        Vector u = dir.orthogonal();
+        Vector w = dir.crossProduct(u);
+
+        Ray[] rays = new Ray[count];
+        int used = 0;
+        for (int i = 0; i < count; ++i) {
+            double r = spread * Math.sqrt((i + 0.5) / count);
+            double theta = i * GOLDEN_ANGLE;
+            double a = r * Math.cos(theta);
+            double b = r * Math.sin(theta);
+            Vector sample = new Vector(
+                    dir.getX() + a * u.getX() + b * w.getX(),
+                    dir.getY() + a * u.getY() + b * w.getY(),
+                    dir.getZ() + a * u.getZ() + b * w.getZ());
+            // the ray stays on the same side of the surface as the axis of the cone
+            if (alignZero(sample.dotProduct(n)) * side > 0)
+                rays[used++] = new Ray(point, sample, n);
+        }
 
+        if (used == 0) {
+            stack.push(ray, level - 1, kkx, weight);
+            return;
+        }
+        Double3 share = weight.scale(1d / used);
+        for (int i = 0; i < used; ++i)
+            stack.push(rays[i], level - 1, kkx, share);
+    }
 
     /**
      * @param pointGeo the Point at the surface of the geometry
@@ -223,7 +421,9 @@ public class RayTracerBasic extends RayTracerBase {
             return null;
         }
 
-        Vector r = v.subtract(n.scale(2 * vn));
+        double scale = 2 * vn;
+        Vector r = new Vector(v.getX() - n.getX() * scale, v.getY() - n.getY() * scale,
+                v.getZ() - n.getZ() * scale);
         return new Ray(pointGeo, r, n);
     }
 
@@ -245,19 +445,8 @@ public class RayTracerBasic extends RayTracerBase {
         Ray lightRay = new Ray(point, lightDirection, n);
 
         double maxDistance = lightSource.getDistance(gp.point);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntsersections(lightRay, maxDistance);
-
-        if (intersections == null) {
-            return true;
-        }
-
-        for (var item : intersections) {
-            if (item.geometry.getMaterial().getKt().lowerThan(MIN_CALC_COLOR_K)) {
-                return false;
-            }
-        }
-
-        return true;
+        return !scene.geometries.findTransparency(lightRay, maxDistance, minK)
+                .lowerThan(minK);
     }
 
     /**
@@ -272,33 +461,94 @@ public class RayTracerBasic extends RayTracerBase {
 
     private Double3 transparency(LightSource lightSource, Vector l, Vector n, GeoPoint gp) {
 
+        if (lightSource instanceof AreaLight areaLight)
+            return areaTransparency(areaLight, n, gp.point);
+
         // from point to light source
         Vector lightDirection = l.scale(-1);
         Point point = gp.point;
         Ray lightRay = new Ray(point, lightDirection, n);
 
         double maxDistance = lightSource.getDistance(gp.point);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntsersections(lightRay, maxDistance);
-
-        if (intersections == null)
-            return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
 
-        // loop over intersections and for each intersection which is closer to the
-        // point than the light source multiply ktr by 𝒌𝑻 of its geometry.
+        // multiply ktr by 𝒌𝑻 of the geometry of each intersection which is closer to the
+        // point than the light source.
         // Performance:
-        // if you get close to 0 –it’s time to get out (return 0)
+        // the search stops at the first opaque geometry (or when ktr is close to 0)
+        return scene.geometries.findTransparency(lightRay, maxDistance, minK);
+    }
 
-        for (var geo : intersections) {
+    /**
+     * Transparency between a point and an area light: the part of the light surface seen
+     * from the point, so the shadow is soft.
+     * The corners of the surface are tested first, and a part of the surface whose corners
+     * don't agree (the point is in the penumbra) is cut in 4 parts, with 5 new shadow rays shared
+     * by the 4 parts, up to the shadow depth of the light.
+     * So a point fully lit or fully in the shadow costs 4 shadow rays only.
+     *
+     * @param light the area light
+     * @param n     normal vector to the surface at the point
+     * @param point the point
+     * @return the average transparency over the surface of the light
+     */
+    private Double3 areaTransparency(AreaLight light, Vector n, Point point) {
+        Double3[] corners = {
+                sampleTransparency(light.getPoint(0, 0), n, point),
+                sampleTransparency(light.getPoint(1, 0), n, point),
+                sampleTransparency(light.getPoint(0, 1), n, point),
+                sampleTransparency(light.getPoint(1, 1), n, point)};
+        return areaTransparency(light, n, point, 0.5, 0.5, 1, corners, light.getShadowDepth());
+    }
 
-            ktr = ktr.product(geo.geometry.getMaterial().getKt());
+    /**
+     * Average transparency over a square part of the unit square of an area light
+     *
+     * @param light   the area light
+     * @param n       normal vector to the surface at the point
+     * @param point   the point
+     * @param s       first coordinate of the center of the part
+     * @param t       second coordinate of the center of the part
+     * @param size    side of the part
+     * @param corners transparency at the corners of the part: (s-, t-), (s+, t-), (s-, t+), (s+, t+)
+     * @param depth   number of subdivisions still allowed
+     * @return the average transparency over the part
+     */
+    private Double3 areaTransparency(AreaLight light, Vector n, Point point,
+                                     double s, double t, double size, Double3[] corners, int depth) {
+        if (depth == 0
+                || corners[0].equals(corners[1]) && corners[0].equals(corners[2]) && corners[0].equals(corners[3]))
+            return corners[0].add(corners[1]).add(corners[2]).add(corners[3]).scale(0.25);
+
+        double half = size / 2;
+        Double3 center = sampleTransparency(light.getPoint(s, t), n, point);
+        Double3 top = sampleTransparency(light.getPoint(s, t - half), n, point);
+        Double3 bottom = sampleTransparency(light.getPoint(s, t + half), n, point);
+        Double3 left = sampleTransparency(light.getPoint(s - half, t), n, point);
+        Double3 right = sampleTransparency(light.getPoint(s + half, t), n, point);
+
+        double quarter = size / 4;
+        return areaTransparency(light, n, point, s - quarter, t - quarter, half,
+                new Double3[]{corners[0], top, left, center}, depth - 1)
+                .add(areaTransparency(light, n, point, s + quarter, t - quarter, half,
+                        new Double3[]{top, corners[1], center, right}, depth - 1))
+                .add(areaTransparency(light, n, point, s - quarter, t + quarter, half,
+                        new Double3[]{left, center, corners[2], bottom}, depth - 1))
+                .add(areaTransparency(light, n, point, s + quarter, t + quarter, half,
+                        new Double3[]{center, right, bottom, corners[3]}, depth - 1))
+                .scale(0.25);
+    }
 
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                return Double3.ZERO;
-            }
-        }
-        return ktr;
+    /**
+     * Transparency between a point and one point of the surface of an area light
+     *
+     * @param sample the point of the light
+     * @param n      normal vector to the surface at the point
+     * @param point  the point
+     * @return accumulated transparency attenuation factor
+     */
+    private Double3 sampleTransparency(Point sample, Vector n, Point point) {
+        Ray lightRay = new Ray(point, sample.subtract(point), n);
+        return scene.geometries.findTransparency(lightRay, point.distance(sample), minK);
     }
 
     /**
@@ -306,16 +556,73 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest intersection as GeoPoint or null if there is no intersection
      */
     private GeoPoint findClosestIntersection(Ray ray) {
+        return scene.geometries.findClosestGeoIntersection(ray);
+    }
 
-        List<GeoPoint> intersections = scene.geometries.findGeoIntsersections(ray);
-
-        // If there are no intersections
-        if (intersections == null) {
-            return null;
+    /**
+     * Stack of secondary rays with their recursion level, attenuation and throughput weight,
+     * in parallel arrays that grow only if a path needs more entries than the initial capacity
+     */
+    private static final class PathStack {
+
+        /**
+         * The rays
+         */
+        private Ray[] rays;
+
+        /**
+         * The recursion level of the rays
+         */
+        private int[] levels;
+
+        /**
+         * The attenuation of the rays (for the stopping conditions)
+         */
+        private Double3[] ks;
+
+        /**
+         * The throughput weight of the rays
+         */
+        private Double3[] weights;
+
+        /**
+         * Number of rays in the stack
+         */
+        private int size = 0;
+
+        /**
+         * Constructor of PathStack
+         *
+         * @param capacity initial number of entries
+         */
+        private PathStack(int capacity) {
+            rays = new Ray[capacity];
+            levels = new int[capacity];
+            ks = new Double3[capacity];
+            weights = new Double3[capacity];
         }
 
-        return ray.findGeoClosestPoint(intersections);
+        /**
+         * Push a ray on the stack
+         *
+         * @param ray    the ray
+         * @param level  its recursion level
+         * @param k      its attenuation
+         * @param weight its throughput weight
+         */
+        private void push(Ray ray, int level, Double3 k, Double3 weight) {
+            if (size == rays.length) {
+                int capacity = 2 * size;
+                rays = Arrays.copyOf(rays, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+                ks = Arrays.copyOf(ks, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            rays[size] = ray;
+            levels[size] = level;
+            ks[size] = k;
+            weights[size] = weight;
+            ++size;
+        }
     }
-
 }
-
@@ -0,0 +1,743 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Mesh;
+import primitives.Color;
+import primitives.Material;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class MeshLoader reads 3D models from files into {@link Mesh} geometries.
+ * Two formats are supported:
+ * <ul>
+ * <li>Wavefront OBJ: vertices ("v"), faces ("f", polygons are split in triangles) and
+ * material groups ("usemtl"), the other statements are ignored</li>
+ * <li>binary PLY (little or big endian): the "vertex" element (properties x, y, z)
+ * and the "face" element (list property vertex_indices)</li>
+ * </ul>
+ * The file is streamed through a fixed size buffer of a file channel and the numbers are
+ * parsed directly into growing arrays of primitives, so no Point or Triangle object is created
+ * whatever the size of the model. All the meshes of a file share the same vertex buffer.
+ */
+public class MeshLoader {
+
+    /**
+     * Size of the buffer of the file channel
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximal length of a number or of a name in an OBJ file
+     */
+    private static final int MAX_TOKEN_LENGTH = 256;
+
+    /**
+     * Exact powers of 10 (the biggest exactly represented by a double is 10^22)
+     */
+    private static final double[] POWERS_OF_10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /**
+     * Material of the meshes without a material of their own, default Material
+     */
+    private Material material = new Material();
+
+    /**
+     * Emission of the meshes, BLACK by default
+     */
+    private Color emission = Color.BLACK;
+
+    /**
+     * Materials of the OBJ groups by the name given in "usemtl"
+     */
+    private final Map<String, Material> materials = new HashMap<>();
+
+    private final Logger logger = Logger.getLogger("MeshLoader");
+
+    /**
+     * Setter of the default material
+     *
+     * @param material Material of the meshes without a material of their own
+     * @return this
+     */
+    public MeshLoader setMaterial(Material material) {
+        this.material = material;
+        return this;
+    }
+
+    /**
+     * Setter of the material of a group of faces of an OBJ file
+     *
+     * @param name     name of the material in the "usemtl" statements
+     * @param material Material of the faces of the group
+     * @return this
+     */
+    public MeshLoader setMaterial(String name, Material material) {
+        materials.put(name, material);
+        return this;
+    }
+
+    /**
+     * Setter of emission
+     *
+     * @param emission color of the meshes
+     * @return this
+     */
+    public MeshLoader setEmission(Color emission) {
+        this.emission = emission;
+        return this;
+    }
+
+    /**
+     * Load a model, the format is chosen by the extension of the file (.obj or .ply)
+     *
+     * @param path the file of the model
+     * @return the meshes of the model, one for each material
+     * @throws IllegalArgumentException if the format is not supported or the file is malformed
+     * @throws IllegalStateException    in case of I/O error
+     */
+    public Geometries load(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".obj"))
+            return loadObj(path);
+        if (name.endsWith(".ply"))
+            return loadPly(path);
+        throw new IllegalArgumentException("Unsupported model format: " + path);
+    }
+
+    // ***************** OBJ ********************** //
+
+    /**
+     * Load a Wavefront OBJ file
+     *
+     * @param path the file of the model
+     * @return the meshes of the model, one for each "usemtl" group
+     * @throws IllegalArgumentException if the file is malformed
+     * @throws IllegalStateException    in case of I/O error
+     */
+    public Geometries loadObj(Path path) {
+        DoubleArray vertices = new DoubleArray();
+        // faces of each material, the faces before the first "usemtl" have the default material
+        Map<String, IntArray> groups = new LinkedHashMap<>();
+        IntArray group = null;
+        IntArray face = new IntArray();
+        byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+        try (Input input = new Input(path)) {
+            int length;
+            while ((length = input.readToken(token)) >= 0) {
+                if (length == 0) { // empty line
+                    input.skipLine();
+                    continue;
+                }
+                if (is(token, length, "v")) {
+                    for (int i = 0; i < 3; ++i)
+                        vertices.add(parseDouble(token, input.readToken(token)));
+                } else if (is(token, length, "f")) {
+                    int verticesCount = vertices.size / 3;
+                    face.size = 0;
+                    while ((length = input.readToken(token)) > 0) {
+                        int index = parseIndex(token, length);
+                        // negative indices are relative to the last vertex read
+                        face.add(index < 0 ? verticesCount + index : index - 1);
+                    }
+                    if (face.size < 3)
+                        throw new IllegalArgumentException("A face needs at least 3 vertices");
+                    if (group == null)
+                        group = groups.computeIfAbsent(null, k -> new IntArray());
+                    // the polygon is split in a fan of triangles around its first vertex
+                    for (int i = 2; i < face.size; ++i) {
+                        group.add(face.data[0]);
+                        group.add(face.data[i - 1]);
+                        group.add(face.data[i]);
+                    }
+                } else if (is(token, length, "usemtl")) {
+                    length = input.readToken(token);
+                    String name = new String(token, 0, Math.max(length, 0), StandardCharsets.UTF_8);
+                    group = groups.computeIfAbsent(name, k -> new IntArray());
+                }
+                input.skipLine();
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error while reading " + path, e);
+        }
+
+        if (groups.values().stream().allMatch(g -> g.size == 0))
+            throw new IllegalArgumentException("No face in the file " + path);
+        double[] vertexBuffer = vertices.toArray();
+        Geometries geometries = new Geometries();
+        for (Map.Entry<String, IntArray> entry : groups.entrySet())
+            if (entry.getValue().size > 0)
+                geometries.add(createMesh(vertexBuffer, entry.getValue().toArray(), entry.getKey()));
+        return geometries;
+    }
+
+    /**
+     * Compare a token with a keyword
+     *
+     * @param token   bytes of the token
+     * @param length  length of the token
+     * @param keyword the keyword
+     * @return true if the token is the keyword
+     */
+    private static boolean is(byte[] token, int length, String keyword) {
+        if (length != keyword.length())
+            return false;
+        for (int i = 0; i < length; ++i)
+            if (token[i] != keyword.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * Parse the index of the vertex of a face ("v", "v/vt", "v//vn" or "v/vt/vn")
+     *
+     * @param token  bytes of the token
+     * @param length length of the token
+     * @return the index as written in the file (1 for the first vertex, negative if relative)
+     * @throws IllegalArgumentException if the token is not an index
+     */
+    private static int parseIndex(byte[] token, int length) {
+        int i = 0;
+        boolean negative = length > 0 && token[0] == '-';
+        if (negative)
+            ++i;
+        long index = 0;
+        int start = i;
+        for (; i < length && token[i] != '/'; ++i) {
+            int digit = token[i] - '0';
+            if (digit < 0 || digit > 9 || index > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Bad index of vertex: " + new String(token, 0, length, StandardCharsets.UTF_8));
+            index = index * 10 + digit;
+        }
+        if (i == start || index == 0)
+            throw new IllegalArgumentException("Bad index of vertex: " + new String(token, 0, length, StandardCharsets.UTF_8));
+        return (int) (negative ? -index : index);
+    }
+
+    /**
+     * Parse a decimal number.
+     * The numbers with at most 15 significant digits and a small exponent (the usual case in models)
+     * are calculated exactly with one multiplication or division by an exact power of 10,
+     * the others are given to Double.parseDouble.
+     *
+     * @param token  bytes of the number
+     * @param length length of the number (negative if there is no number)
+     * @return the number
+     * @throws IllegalArgumentException if the token is not a number
+     */
+    private static double parseDouble(byte[] token, int length) {
+        if (length <= 0)
+            throw new IllegalArgumentException("Missing coordinate of vertex");
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+')
+            ++i;
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean point = false;
+        boolean fast = true;
+        boolean anyDigit = false;
+        for (; i < length; ++i) {
+            byte c = token[i];
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || c != '0')
+                    ++digits;
+                mantissa = mantissa * 10 + (c - '0');
+                if (point)
+                    --exponent;
+                if (digits > 15) {
+                    fast = false;
+                    break;
+                }
+            } else if (c == '.' && !point)
+                point = true;
+            else
+                break;
+        }
+        if (!anyDigit)
+            fast = false;
+        if (fast && i < length) { // exponent
+            byte c = token[i];
+            if (c == 'e' || c == 'E') {
+                ++i;
+                boolean negativeExponent = i < length && token[i] == '-';
+                if (i < length && (token[i] == '-' || token[i] == '+'))
+                    ++i;
+                int value = 0;
+                int start = i;
+                for (; i < length && token[i] >= '0' && token[i] <= '9' && value < 1000; ++i)
+                    value = value * 10 + (token[i] - '0');
+                if (i == start)
+                    fast = false;
+                exponent += negativeExponent ? -value : value;
+            }
+            if (i < length)
+                fast = false;
+        }
+
+        if (fast && Math.abs(exponent) < POWERS_OF_10.length) {
+            // the mantissa and the power are exact, so the result is correctly rounded
+            double value = exponent < 0 ? mantissa / POWERS_OF_10[-exponent] : mantissa * POWERS_OF_10[exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(token, 0, length, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad coordinate of vertex: "
+                    + new String(token, 0, length, StandardCharsets.UTF_8), e);
+        }
+    }
+
+    // ***************** PLY ********************** //
+
+    /**
+     * Load a binary PLY file
+     *
+     * @param path the file of the model
+     * @return the mesh of the model (with the default material)
+     * @throws IllegalArgumentException if the file is malformed or in ASCII format
+     * @throws IllegalStateException    in case of I/O error
+     */
+    public Geometries loadPly(Path path) {
+        double[] vertices = null;
+        IntArray triangles = null;
+
+        try (Input input = new Input(path)) {
+            List<PlyElement> elements = readPlyHeader(input);
+            for (PlyElement element : elements) {
+                switch (element.name) {
+                    case "vertex" -> vertices = readPlyVertices(input, element);
+                    case "face" -> triangles = readPlyFaces(input, element);
+                    default -> {
+                        for (long i = 0; i < element.count; ++i)
+                            for (PlyProperty property : element.properties)
+                                property.skip(input);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error while reading " + path, e);
+        }
+
+        if (vertices == null || triangles == null || triangles.size == 0)
+            throw new IllegalArgumentException("No face in the file " + path);
+        return new Geometries(createMesh(vertices, triangles.toArray(), null));
+    }
+
+    /**
+     * Read the header of a PLY file, the input is left at the beginning of the binary data
+     *
+     * @param input the file
+     * @return the elements of the file in the order of the data
+     * @throws IOException              in case of I/O error
+     * @throws IllegalArgumentException if the header is malformed or the format is not binary
+     */
+    private static List<PlyElement> readPlyHeader(Input input) throws IOException {
+        if (!"ply".equals(input.readLine()))
+            throw new IllegalArgumentException("Not a PLY file");
+
+        List<PlyElement> elements = new ArrayList<>();
+        String line;
+        while (!"end_header".equals(line = input.readLine())) {
+            if (line == null)
+                throw new IllegalArgumentException("Missing end of the PLY header");
+            String[] words = line.trim().split("\\s+");
+            switch (words[0]) {
+                case "format" -> {
+                    if (words.length < 2)
+                        throw new IllegalArgumentException("Bad PLY format line: " + line);
+                    switch (words[1]) {
+                        case "binary_little_endian" -> input.buffer.order(ByteOrder.LITTLE_ENDIAN);
+                        case "binary_big_endian" -> input.buffer.order(ByteOrder.BIG_ENDIAN);
+                        default -> throw new IllegalArgumentException("Unsupported PLY format: " + words[1]);
+                    }
+                }
+                case "element" -> {
+                    if (words.length != 3)
+                        throw new IllegalArgumentException("Bad PLY element line: " + line);
+                    elements.add(new PlyElement(words[1], Long.parseLong(words[2])));
+                }
+                case "property" -> {
+                    if (elements.isEmpty())
+                        throw new IllegalArgumentException("PLY property outside of an element: " + line);
+                    PlyProperty property;
+                    if (words.length == 5 && words[1].equals("list"))
+                        property = new PlyProperty(words[4], PlyType.of(words[3]), PlyType.of(words[2]));
+                    else if (words.length == 3)
+                        property = new PlyProperty(words[2], PlyType.of(words[1]), null);
+                    else
+                        throw new IllegalArgumentException("Bad PLY property line: " + line);
+                    elements.get(elements.size() - 1).properties.add(property);
+                }
+                default -> {
+                    // comments and obj_info
+                }
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Read the vertices of a PLY file
+     *
+     * @param input   the file
+     * @param element the vertex element
+     * @return the coordinates of the vertices
+     * @throws IOException in case of I/O error
+     */
+    private static double[] readPlyVertices(Input input, PlyElement element) throws IOException {
+        if (element.count > Integer.MAX_VALUE / 3)
+            throw new IllegalArgumentException("Too many vertices: " + element.count);
+        int count = (int) element.count;
+        double[] vertices = new double[3 * count];
+        for (int i = 0; i < count; ++i) {
+            for (PlyProperty property : element.properties) {
+                switch (property.name) {
+                    case "x" -> vertices[3 * i] = property.read(input);
+                    case "y" -> vertices[3 * i + 1] = property.read(input);
+                    case "z" -> vertices[3 * i + 2] = property.read(input);
+                    default -> property.skip(input);
+                }
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Read the faces of a PLY file, polygons are split in triangles
+     *
+     * @param input   the file
+     * @param element the face element
+     * @return the indices of the vertices of the triangles
+     * @throws IOException in case of I/O error
+     */
+    private static IntArray readPlyFaces(Input input, PlyElement element) throws IOException {
+        IntArray triangles = new IntArray();
+        for (long i = 0; i < element.count; ++i) {
+            for (PlyProperty property : element.properties) {
+                if (property.countType == null
+                        || !property.name.equals("vertex_indices") && !property.name.equals("vertex_index")) {
+                    property.skip(input);
+                    continue;
+                }
+                int size = (int) property.countType.read(input);
+                if (size < 3)
+                    throw new IllegalArgumentException("A face needs at least 3 vertices");
+                int first = (int) property.type.read(input);
+                int previous = (int) property.type.read(input);
+                for (int j = 2; j < size; ++j) {
+                    int current = (int) property.type.read(input);
+                    triangles.add(first);
+                    triangles.add(previous);
+                    triangles.add(current);
+                    previous = current;
+                }
+            }
+        }
+        return triangles;
+    }
+
+    // ***************** Helpers ********************** //
+
+    /**
+     * Create a mesh of the model with its material and the emission of the loader
+     *
+     * @param vertices  the vertex buffer shared by the meshes of the model
+     * @param triangles the index buffer of the mesh
+     * @param name      name of the material of the group, null for the default material
+     * @return the mesh
+     */
+    private Mesh createMesh(double[] vertices, int[] triangles, String name) {
+        Mesh mesh = new Mesh(vertices, triangles);
+        mesh.setMaterial(name == null ? material : materials.getOrDefault(name, material));
+        mesh.setEmission(emission);
+        return mesh;
+    }
+
+    /**
+     * Growing array of int
+     */
+    private static final class IntArray {
+        private int[] data = new int[1024];
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * Growing array of double
+     */
+    private static final class DoubleArray {
+        private double[] data = new double[1024];
+        private int size = 0;
+
+        private void add(double value) {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        private double[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * Types of the PLY properties
+     */
+    private enum PlyType {
+        INT8(1), UINT8(1), INT16(2), UINT16(2), INT32(4), UINT32(4), FLOAT32(4), FLOAT64(8);
+
+        /**
+         * Size in bytes of a value
+         */
+        private final int size;
+
+        PlyType(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Find the type of a name of the PLY header
+         *
+         * @param name the name (e.g. "float" or "float32")
+         * @return the type
+         */
+        private static PlyType of(String name) {
+            return switch (name) {
+                case "char", "int8" -> INT8;
+                case "uchar", "uint8" -> UINT8;
+                case "short", "int16" -> INT16;
+                case "ushort", "uint16" -> UINT16;
+                case "int", "int32" -> INT32;
+                case "uint", "uint32" -> UINT32;
+                case "float", "float32" -> FLOAT32;
+                case "double", "float64" -> FLOAT64;
+                default -> throw new IllegalArgumentException("Unknown PLY type: " + name);
+            };
+        }
+
+        /**
+         * Read a value of this type
+         *
+         * @param input the file
+         * @return the value
+         * @throws IOException in case of I/O error
+         */
+        private double read(Input input) throws IOException {
+            ByteBuffer buffer = input.require(size);
+            return switch (this) {
+                case INT8 -> buffer.get();
+                case UINT8 -> buffer.get() & 0xFF;
+                case INT16 -> buffer.getShort();
+                case UINT16 -> buffer.getShort() & 0xFFFF;
+                case INT32 -> buffer.getInt();
+                case UINT32 -> buffer.getInt() & 0xFFFFFFFFL;
+                case FLOAT32 -> buffer.getFloat();
+                case FLOAT64 -> buffer.getDouble();
+            };
+        }
+    }
+
+    /**
+     * Property of a PLY element
+     *
+     * @param name      name of the property
+     * @param type      type of the value (of the items for a list)
+     * @param countType type of the size of the list, null if the property is not a list
+     */
+    private record PlyProperty(String name, PlyType type, PlyType countType) {
+
+        /**
+         * Read a scalar property
+         *
+         * @param input the file
+         * @return the value
+         * @throws IOException in case of I/O error
+         */
+        private double read(Input input) throws IOException {
+            if (countType != null)
+                throw new IllegalArgumentException("PLY property " + name + " must not be a list");
+            return type.read(input);
+        }
+
+        /**
+         * Skip the property
+         *
+         * @param input the file
+         * @throws IOException in case of I/O error
+         */
+        private void skip(Input input) throws IOException {
+            long count = countType == null ? 1 : (long) countType.read(input);
+            for (long i = 0; i < count; ++i)
+                input.require(type.size).position(input.buffer.position() + type.size);
+        }
+    }
+
+    /**
+     * Element of a PLY file
+     */
+    private static final class PlyElement {
+        private final String name;
+        private final long count;
+        private final List<PlyProperty> properties = new ArrayList<>();
+
+        private PlyElement(String name, long count) {
+            if (count < 0)
+                throw new IllegalArgumentException("Bad number of " + name + ": " + count);
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Reading of a file through a file channel and a buffer of fixed size
+     */
+    private static final class Input implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private boolean end = false;
+
+        private Input(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        /**
+         * Make sure the buffer holds at least n bytes, reading the file if needed
+         *
+         * @param n number of bytes
+         * @return true if there are n bytes, false at the end of the file
+         * @throws IOException in case of I/O error
+         */
+        private boolean fill(int n) throws IOException {
+            while (buffer.remaining() < n && !end) {
+                buffer.compact();
+                end = channel.read(buffer) < 0;
+                buffer.flip();
+            }
+            return buffer.remaining() >= n;
+        }
+
+        /**
+         * Get the buffer holding at least n bytes for a binary value
+         *
+         * @param n number of bytes
+         * @return the buffer
+         * @throws IOException              in case of I/O error
+         * @throws IllegalArgumentException at the end of the file
+         */
+        private ByteBuffer require(int n) throws IOException {
+            if (!fill(n))
+                throw new IllegalArgumentException("Unexpected end of file");
+            return buffer;
+        }
+
+        /**
+         * Read the next byte
+         *
+         * @return the byte or -1 at the end of the file
+         * @throws IOException in case of I/O error
+         */
+        private int read() throws IOException {
+            return fill(1) ? buffer.get() & 0xFF : -1;
+        }
+
+        /**
+         * Read a line of text
+         *
+         * @return the line without the end of line, null at the end of the file
+         * @throws IOException in case of I/O error
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = read()) != '\n') {
+                if (c < 0)
+                    return line.isEmpty() ? null : line.toString();
+                if (c != '\r')
+                    line.append((char) c);
+            }
+            return line.toString();
+        }
+
+        /**
+         * Read the next word of the current line
+         *
+         * @param token array receiving the bytes of the word
+         * @return length of the word, 0 at the end of the line (which is not consumed)
+         * or -1 at the end of the file
+         * @throws IOException in case of I/O error
+         */
+        private int readToken(byte[] token) throws IOException {
+            int c;
+            do {
+                if (!fill(1))
+                    return -1;
+                c = buffer.get(buffer.position());
+                if (c == ' ' || c == '\t')
+                    buffer.get();
+            } while (c == ' ' || c == '\t');
+
+            int length = 0;
+            while (fill(1)) {
+                c = buffer.get(buffer.position());
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '#')
+                    break;
+                if (length == token.length)
+                    throw new IllegalArgumentException("Too long word in the file");
+                token[length++] = buffer.get();
+            }
+            return length;
+        }
+
+        /**
+         * Skip the end of the current line
+         *
+         * @throws IOException in case of I/O error
+         */
+        private void skipLine() throws IOException {
+            int c;
+            do
+                c = read();
+            while (c != '\n' && c >= 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
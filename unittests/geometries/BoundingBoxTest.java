@@ -0,0 +1,84 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing BoundingBox
+ */
+class BoundingBoxTest {
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "Ray crosses the box");
+
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 2, 0.5), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "Ray misses the box");
+
+        // TC03: Box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(-1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Box is behind the ray");
+
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray starts inside the box");
+
+        // TC05: Box is farther than the maximum distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 0, 0)), 2),
+                "Box is farther than the maximum distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray is parallel to a face and inside the slab
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray parallel to the faces inside the slabs");
+
+        // TC12: Ray is parallel to a face and outside the slab
+        assertFalse(box.intersects(new Ray(new Point(-1, 0.5, 3), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray parallel to the faces outside the slabs");
+
+        // TC13: Flat box of a polygon lying in an axis plane
+        BoundingBox flat = new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0)).getBoundingBox();
+        assertTrue(flat.intersects(new Ray(new Point(0.2, 0.2, 1), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY),
+                "Ray crosses a flat box");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere
+        BoundingBox box = new Sphere(new Point(1, 2, 3), 1).getBoundingBox();
+        assertEquals(new Point(0, 1, 2), box.getMin(), "Bad minimal corner of a sphere box");
+        assertEquals(new Point(2, 3, 4), box.getMax(), "Bad maximal corner of a sphere box");
+
+        // TC02: Cylinder along the z axis
+        box = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 5).getBoundingBox();
+        assertEquals(new Point(-1, -1, 0), box.getMin(), "Bad minimal corner of a cylinder box");
+        assertEquals(new Point(1, 1, 5), box.getMax(), "Bad maximal corner of a cylinder box");
+
+        // TC03: Unbounded geometries
+        assertNull(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox(), "A plane has no box");
+        assertNull(new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1).getBoundingBox(),
+                "A tube has no box");
+        assertNull(new Geometries(new Sphere(new Point(1, 2, 3), 1),
+                        new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox(),
+                "A collection with a plane has no box");
+    }
+}
@@ -0,0 +1,157 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing FlatBVH
+ */
+class FlatBVHTest {
+
+    /**
+     * Boxes of 5 unit cubes along the x axis, given out of order
+     */
+    private final double[] bounds = {
+            4, 0, 0, 5, 1, 1,
+            0, 0, 0, 1, 1, 1,
+            2, 0, 0, 3, 1, 1,
+            8, 0, 0, 9, 1, 1,
+            6, 0, 0, 7, 1, 1};
+
+    /**
+     * Test method for {@link geometries.FlatBVH#FlatBVH(double[], int)}.
+     */
+    @Test
+    void testBuild() {
+        FlatBVH bvh = new FlatBVH(bounds, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Each primitive is in exactly one leaf, in the order of the leaves
+        int[] order = bvh.getOrder().clone();
+        Arrays.sort(order);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, order, "Each primitive must be once in the leaves");
+        int primitives = 0;
+        for (int node = 0; node < bvh.getNodesCount(); ++node) {
+            int count = bvh.count(node);
+            if (count > 0) {
+                assertEquals(primitives, bvh.first(node), "The leaves must be in depth-first order");
+                primitives += count;
+            }
+        }
+        assertEquals(5, primitives, "Wrong number of primitives in the leaves");
+
+        // TC02: Box of the root contains all the primitives
+        BoundingBox box = bvh.getBoundingBox();
+        assertEquals(new Point(0, 0, 0), box.getMin(), "Wrong minimal corner of the root");
+        assertEquals(new Point(9, 1, 1), box.getMax(), "Wrong maximal corner of the root");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single primitive is a leaf
+        FlatBVH single = new FlatBVH(Arrays.copyOf(bounds, 6), 1);
+        assertEquals(1, single.getNodesCount(), "A single primitive must be only one node");
+        assertEquals(1, single.count(0), "The root must be a leaf");
+    }
+
+    /**
+     * Test method for {@link geometries.FlatBVH#FlatBVH(double[], int, BVHSplit, boolean)}.
+     */
+    @Test
+    void testParallelBuild() {
+        // random small boxes, enough for several tasks
+        Random random = new Random(42);
+        double[] boxes = new double[6 * 4 * FlatBVH.PARALLEL_THRESHOLD];
+        for (int i = 0; i < boxes.length; i += 6)
+            for (int axis = 0; axis < 3; ++axis) {
+                boxes[i + axis] = random.nextDouble() * 100;
+                boxes[i + 3 + axis] = boxes[i + axis] + random.nextDouble();
+            }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The parallel build gives the same hierarchy as the serial build, for each split
+        for (BVHSplit split : BVHSplit.values()) {
+            FlatBVH serial = new FlatBVH(boxes, 4, split, false);
+            FlatBVH parallel = new FlatBVH(boxes, 4, split, true);
+            assertArrayEquals(serial.getOrder(), parallel.getOrder(), "Different order of the leaves with " + split);
+            assertEquals(serial.getNodesCount(), parallel.getNodesCount(), "Different number of nodes with " + split);
+            for (int node = 0; node < serial.getNodesCount(); ++node) {
+                assertEquals(serial.count(node), parallel.count(node), "Different node with " + split);
+                assertEquals(serial.first(node), parallel.first(node), "Different node with " + split);
+            }
+            assertEquals(serial.getCost(), parallel.getCost(), "Different cost with " + split);
+            assertEquals(serial.getMaxDepth(), parallel.getMaxDepth(), "Different depth with " + split);
+        }
+
+        // TC02: Each primitive is once in the leaves of the Morton hierarchy
+        int[] order = new FlatBVH(boxes, 4, BVHSplit.MORTON, true).getOrder().clone();
+        Arrays.sort(order);
+        for (int i = 0; i < order.length; ++i)
+            assertEquals(i, order[i], "Each primitive must be once in the leaves");
+    }
+
+    /**
+     * Test method for {@link geometries.FlatBVH#FlatBVH(double[], int, BVHSplit, boolean)}
+     * with the surface area heuristic: a small node is split only if the split is cheaper than a leaf.
+     */
+    @Test
+    void testBuildSAH() {
+        // 4 boxes almost at the same place
+        double[] overlapping = {
+                0, 0, 0, 10, 10, 10,
+                0.1, 0, 0, 10.1, 10, 10,
+                0.2, 0, 0, 10.2, 10, 10,
+                0.3, 0, 0, 10.3, 10, 10};
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Separate primitives are split though they fit in a leaf
+        FlatBVH separate = new FlatBVH(bounds, 8, BVHSplit.SAH, false);
+        assertTrue(separate.getNodesCount() > 1, "Separate primitives must be split");
+
+        // TC02: Overlapping primitives which fit in a leaf stay in a leaf
+        FlatBVH leaf = new FlatBVH(overlapping, 4, BVHSplit.SAH, false);
+        assertEquals(1, leaf.getNodesCount(), "Overlapping primitives must stay in a leaf");
+        assertEquals(4, leaf.count(0), "The root must be a leaf of all the primitives");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Overlapping primitives are split when they don't fit in a leaf
+        FlatBVH split = new FlatBVH(overlapping, 2, BVHSplit.SAH, false);
+        assertTrue(split.getNodesCount() > 1, "Too many primitives for a leaf");
+        for (int node = 0; node < split.getNodesCount(); ++node)
+            assertTrue(split.count(node) <= 2, "Too many primitives in a leaf");
+    }
+
+    /**
+     * Test method for {@link geometries.FlatBVH#intersects(int, Ray, double)}.
+     */
+    @Test
+    void testTraversal() {
+        FlatBVH bvh = new FlatBVH(bounds, 1);
+        Ray ray = new Ray(new Point(2.5, 0.5, -1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The only leaf visited by a ray through one cube is the leaf of this cube
+        FlatBVH.Stack stack = FlatBVH.Stack.get();
+        int bottom = stack.size;
+        stack.push(0);
+        int visited = -1;
+        while (stack.size > bottom) {
+            int node = stack.pop();
+            if (!bvh.intersects(node, ray, Double.POSITIVE_INFINITY))
+                continue;
+            if (bvh.count(node) == 0)
+                bvh.pushChildren(node, stack);
+            else {
+                assertEquals(-1, visited, "Only one leaf must be visited");
+                visited = bvh.getOrder()[bvh.first(node)];
+            }
+        }
+        assertEquals(2, visited, "Wrong leaf visited");
+        assertEquals(bottom, stack.size, "The traversal must leave the stack as it was");
+    }
+}
@@ -1,11 +1,15 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GeometriesTest {
 
@@ -64,4 +68,161 @@ class GeometriesTest {
                 "geometries is empty"
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}.
+     */
+    @Test
+    void testBuildBVH() {
+
+        // ==================== Equivalence Partitions test ====================
+
+        //EP01 - The hierarchy finds the same intersections as the flat list
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(1, 0, 0), 1),
+                new Plane(new Point(1, 0, 0), new Vector(0, 1, 0)),
+                new Triangle(new Point(1, 0, 0), new Point(1, 5, 0), new Point(6, 0, 0)),
+                new Sphere(new Point(20, 20, 20), 1));
+        geometries.buildBVH();
+        assertEquals(
+                4,
+                geometries.findIntsersections(
+                        new Ray(new Point(1.5, 1, -0.5), new Vector(-1, -4, 3.5))).size(),
+                "Ray intersects with 3 geometries of the hierarchy(4 points)"
+        );
+
+        //EP02 - Ray misses the box of the bounded geometries and hits only the plane
+        assertEquals(
+                1,
+                geometries.findIntsersections(
+                        new Ray(new Point(-50, 4, 3), new Vector(0, -1, 0))).size(),
+                "Ray intersects only with the plane out of the hierarchy"
+        );
+
+        // ==================== Boundary Values test ====================
+
+        //BV01 - geometries is empty
+        assertEquals(
+                0,
+                new Geometries().buildBVH().findIntsersections(
+                        new Ray(new Point(0.5, 4, 0.5), new Vector(0, -1, 0))).size(),
+                "geometries is empty"
+        );
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH(BVHSplit)}.
+     */
+    @Test
+    void testBuildBVHSplit() {
+        // a large floor under a row of small spheres, and a plane
+        Geometries median = new Geometries();
+        Geometries sah = new Geometries();
+        Polygon floor = new Polygon(new Point(-100, -1, -100), new Point(100, -1, -100),
+                new Point(100, -1, 100), new Point(-100, -1, 100));
+        Plane plane = new Plane(new Point(0, 0, -200), new Vector(0, 0, 1));
+        median.add(floor, plane);
+        sah.add(floor, plane);
+        for (int i = 0; i < 20; ++i) {
+            Sphere sphere = new Sphere(new Point(2 * i, 0, 0), 0.5);
+            median.add(sphere);
+            sah.add(sphere);
+        }
+        median.buildBVH(BVHSplit.MEDIAN);
+        sah.buildBVH(BVHSplit.SAH);
+
+        // ==================== Equivalence Partitions test ====================
+
+        //EP01 - Same intersections with the 2 splits
+        Ray ray = new Ray(new Point(10.2, 5, 0.1), new Vector(0, -1, 0));
+        assertEquals(median.findIntsersections(ray).size(), sah.findIntsersections(ray).size(),
+                "The splits must not change the intersections");
+        assertEquals(median.findClosestGeoIntersection(ray), sah.findClosestGeoIntersection(ray),
+                "The splits must not change the closest intersection");
+
+        //EP02 - Metrics of the building: the plane is out of the hierarchy, and the
+        // surface area heuristic gives a tree at most as expensive as the median
+        BVHMetrics metrics = sah.getBVHMetrics();
+        assertEquals(21, metrics.bounded(), "Wrong number of geometries in the hierarchy");
+        assertEquals(1, metrics.unbounded(), "Wrong number of unbounded geometries");
+        assertEquals(2 * metrics.leaves() - 1, metrics.nodes(), "A binary tree has 2 * leaves - 1 nodes");
+        assertTrue(metrics.cost() <= median.getBVHMetrics().cost(),
+                "The surface area heuristic must not give a more expensive tree");
+
+        // ==================== Boundary Values test ====================
+
+        //BV01 - Only unbounded geometries
+        assertEquals(0, new Geometries(plane).buildBVH().getBVHMetrics().nodes(), "No hierarchy without bounded geometries");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+
+        Sphere sphere = new Sphere(new Point(1, 0, 0), 1);
+        Plane plane = new Plane(new Point(1, 0, 0), new Vector(0, 1, 0));
+        Triangle triangle = new Triangle(new Point(1, 0, 0), new Point(1, 5, 0), new Point(6, 0, 0));
+        Geometries geometries = new Geometries(plane, sphere, triangle);
+
+        // ==================== Equivalence Partitions test ====================
+
+        //EP01 - The closest of the 4 points is on the sphere
+        Intersectable.GeoPoint closest = geometries.findClosestGeoIntersection(
+                new Ray(new Point(1.5, 1, -0.5), new Vector(-1, -4, 3.5)));
+        assertEquals(sphere, closest.geometry, "Wrong closest geometry");
+        assertEquals(closest.point.distance(new Point(1.5, 1, -0.5)), closest.t, 1e-10, "Wrong distance");
+
+        //EP02 - Same closest point with the hierarchy
+        assertEquals(closest, geometries.buildBVH().findClosestGeoIntersection(
+                        new Ray(new Point(1.5, 1, -0.5), new Vector(-1, -4, 3.5))),
+                "Wrong closest point in the hierarchy");
+
+        //EP03 - The only points are farther than the maximum distance
+        assertNull(geometries.findClosestGeoIntersection(
+                        new Ray(new Point(0.5, 4, 3), new Vector(0, -1, 0)), 3),
+                "The plane is farther than the maximum distance");
+
+        // ==================== Boundary Values test ====================
+
+        //BV01 - Ray does not intersect with any geometries
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 1, 0), new Vector(0, 1, 0))),
+                "Ray does not intersect with any geometries");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+
+        Sphere glass = (Sphere) new Sphere(new Point(0, 0, -5), 1).setMaterial(new Material().setKt(0.5));
+        Sphere wall = new Sphere(new Point(0, 0, -10), 1);
+        Geometries geometries = new Geometries(glass, wall);
+
+        // ==================== Equivalence Partitions test ====================
+
+        //EP01 - The ray crosses the 2 points of the transparent sphere before the light
+        assertEquals(new Double3(0.25),
+                geometries.findTransparency(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1)), 7, 0.001),
+                "Wrong transparency through a transparent sphere");
+
+        //EP02 - The ray is blocked by the opaque sphere
+        assertEquals(Double3.ZERO,
+                geometries.findTransparency(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1)), 20, 0.001),
+                "The opaque sphere must block the ray");
+
+        //EP03 - Same result with the hierarchy
+        assertEquals(new Double3(0.25),
+                geometries.buildBVH().findTransparency(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1)), 7, 0.001),
+                "Wrong transparency through the hierarchy");
+
+        // ==================== Boundary Values test ====================
+
+        //BV01 - Nothing between the point and the light
+        assertEquals(Double3.ONE,
+                geometries.findTransparency(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 20, 0.001),
+                "Nothing must block the ray");
+    }
+}
@@ -0,0 +1,142 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing Mesh
+ */
+class MeshTest {
+
+    /**
+     * Square of side 2 in the plane z = 0 made of 2 triangles, and a triangle above it in the plane z = 1
+     *
+     * @return the mesh
+     */
+    private static Mesh createMesh() {
+        double[] vertices = {
+                0, 0, 0, 2, 0, 0, 2, 2, 0, 0, 2, 0,
+                0, 0, 1, 1, 0, 1, 0, 1, 1};
+        int[] triangles = {0, 1, 2, 0, 2, 3, 4, 5, 6};
+        return new Mesh(vertices, triangles);
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#Mesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        Mesh mesh = assertDoesNotThrow(MeshTest::createMesh, "Failed constructing a correct mesh");
+        assertEquals(7, mesh.getVerticesCount(), "Bad number of vertices");
+        assertEquals(3, mesh.getTrianglesCount(), "Bad number of triangles");
+        assertEquals(new Point(0, 0, 0), mesh.getBoundingBox().getMin(), "Bad minimal corner of the box");
+        assertEquals(new Point(2, 2, 1), mesh.getBoundingBox().getMax(), "Bad maximal corner of the box");
+
+        // TC02: Index out of the vertex buffer
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Constructed a mesh with a bad index");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Index buffer not made of triangles
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1}),
+                "Constructed a mesh with an incomplete triangle");
+
+        // TC12: Vertex buffer not made of points
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1}, new int[]{0, 1, 2}),
+                "Constructed a mesh with an incomplete vertex");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findGeoIntsersectionsHelper(Ray, double)}.
+     */
+    @Test
+    void testFindIntsersections() {
+        Mesh mesh = createMesh();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through the upper triangle and the square
+        List<Point> result = mesh.findIntsersections(new Ray(new Point(0.3, 0.1, 2), new Vector(0, 0, -1)));
+        assertNotNull(result, "Bad intersection");
+        assertEquals(2, result.size(), "Wrong number of points");
+        assertTrue(result.contains(new Point(0.3, 0.1, 1)) && result.contains(new Point(0.3, 0.1, 0)),
+                "Bad intersections");
+
+        // TC02: Ray through the square only
+        assertEquals(List.of(new Point(1.5, 0.5, 0)),
+                mesh.findIntsersections(new Ray(new Point(1.5, 0.5, 2), new Vector(0, 0, -1))),
+                "Bad intersection");
+
+        // TC03: Ray outside the mesh
+        assertNull(mesh.findIntsersections(new Ray(new Point(3, 3, 2), new Vector(0, 0, -1))),
+                "Bad intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Rays through the diagonal shared by the 2 triangles of the square (beside the upper triangle)
+        // hit exactly one of them
+        Point origin = new Point(1.7, 1.9, 3.1);
+        for (int i = 1; i < 100; ++i) {
+            Point target = new Point(0.02 * i, 0.02 * i, 0);
+            result = mesh.findIntsersections(new Ray(origin, target.subtract(origin)));
+            assertNotNull(result, "Missed the shared edge, point " + i);
+            assertEquals(1, result.size(), "The shared edge must be hit exactly once, point " + i);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Mesh mesh = createMesh();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The upper triangle is the closest
+        GeoPoint closest = mesh.findClosestGeoIntersection(new Ray(new Point(0.3, 0.1, 2), new Vector(0, 0, -1)));
+        assertNotNull(closest, "Bad intersection");
+        assertEquals(new Point(0.3, 0.1, 1), closest.point, "Wrong closest point");
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(closest), "Bad normal of the triangle hit");
+
+        // TC02: From below the square is the closest
+        closest = mesh.findClosestGeoIntersection(new Ray(new Point(0.3, 0.1, -1), new Vector(0, 0, 1)));
+        assertNotNull(closest, "Bad intersection");
+        assertEquals(new Point(0.3, 0.1, 0), closest.point, "Wrong closest point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray on the diagonal shared by the 2 triangles of the square (no crack between the triangles)
+        closest = mesh.findClosestGeoIntersection(new Ray(new Point(1.5, 1.5, 2), new Vector(0, 0, -1)));
+        assertNotNull(closest, "Missed the edge shared by 2 triangles");
+        assertEquals(new Point(1.5, 1.5, 0), closest.point, "Wrong point on the shared edge");
+
+        // TC12: Mesh farther than the maximum distance
+        assertNull(mesh.findClosestGeoIntersection(new Ray(new Point(1.5, 0.5, 2), new Vector(0, 0, -1)), 1),
+                "Bad intersection farther than the maximum distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        Mesh mesh = createMesh();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Point on a triangle of the mesh
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(1.5, 0.5, 0)), "Bad normal to mesh");
+
+        // TC02: Point outside the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(3, 3, 3)),
+                "Normal of a point outside the mesh");
+    }
+}
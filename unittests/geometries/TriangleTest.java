@@ -9,12 +9,31 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Testing Triangle
  */
 class TriangleTest {
 
+    /**
+     * Test method for {@link geometries.Triangle#Triangle(Point...)}.
+     */
+    @Test
+    public void testConstructor() {
+        // =============== Boundary Values Tests ==================
+        // TC11: Vertices on the same line
+        assertThrows(IllegalArgumentException.class,
+                () -> new Triangle(new Point(0, 0, 1), new Point(0, 0, 2), new Point(0, 0, 3)),
+                "Constructed a triangle with vertices on the same line");
+
+        // TC12: Not 3 vertices
+        assertThrows(IllegalArgumentException.class,
+                () -> new Triangle(new Point(0, 0, 1), new Point(1, 0, 0)),
+                "Constructed a triangle with 2 vertices");
+    }
+
     /**
      * Test method for {@link geometries.Polygon#getNormal(primitives.Point)}.
      */
@@ -69,4 +88,79 @@ class TriangleTest {
         assertEquals(List.of(new Point(-0.5, 1.5, 0)), pl.findIntsersections(ray), "Wrong intersection with plane");
         assertNull(tr.findIntsersections(ray), "Bad intersection");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#intersect(Ray, double, double[])}.
+     */
+    @Test
+    void testIntersect() {
+
+        Triangle tr = new Triangle(new Point(0, 0, 0), new Point(2, 0, 0), new Point(0, 2, 0));
+        double[] uv = new double[2];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Inside triangle, distance and barycentric coordinates of the hit
+        assertEquals(3, tr.intersect(new Ray(new Point(0.5, 1, 3), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY, uv),
+                1e-10, "Bad distance");
+        assertEquals(0.25, uv[0], 1e-10, "Bad barycentric coordinate u");
+        assertEquals(0.5, uv[1], 1e-10, "Bad barycentric coordinate v");
+
+        // TC02: Outside triangle
+        assertTrue(Double.isNaN(tr.intersect(new Ray(new Point(2, 2, 3), new Vector(0, 0, -1)),
+                Double.POSITIVE_INFINITY, null)), "Bad intersection");
+
+        // TC03: Triangle farther than the maximum distance
+        assertTrue(Double.isNaN(tr.intersect(new Ray(new Point(0.5, 1, 3), new Vector(0, 0, -1)), 2, null)),
+                "Bad intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to the triangle
+        assertTrue(Double.isNaN(tr.intersect(new Ray(new Point(0.5, 1, 3), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY, null)), "Bad intersection");
+
+        // TC12: On the edge shared with another triangle: exactly one of them is hit
+        Triangle other = new Triangle(new Point(2, 0, 0), new Point(2, 2, 0), new Point(0, 2, 0));
+        Ray onEdge = new Ray(new Point(1, 1, 3), new Vector(0, 0, -1));
+        assertEquals(1, hits(onEdge, tr, other), "The shared edge must be hit exactly once");
+
+        // TC13: On the shared edge, with the vertices of the other triangle in the opposite order
+        other = new Triangle(new Point(0, 2, 0), new Point(2, 2, 0), new Point(2, 0, 0));
+        assertEquals(1, hits(onEdge, tr, other), "The shared edge must be hit exactly once");
+    }
+
+    /**
+     * Test of the rays through the edge shared by 2 triangles of any orientation:
+     * there must be no crack between the triangles and no double hit.
+     */
+    @Test
+    void testSharedEdge() {
+        Point a = new Point(0.1, 0.3, 0.7);
+        Point b = new Point(3.3, 1.7, -0.9);
+        Triangle first = new Triangle(a, b, new Point(-1.1, 2.9, 0.2));
+        Triangle second = new Triangle(b, a, new Point(2.3, -1.9, 0.4));
+        Point origin = new Point(0.7, 0.9, 5.3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rays through points of the shared edge
+        for (int i = 1; i < 100; ++i) {
+            Point target = a.add(b.subtract(a).scale(i / 100d));
+            Ray ray = new Ray(origin, target.subtract(origin));
+            assertEquals(1, hits(ray, first, second), "The shared edge must be hit exactly once, point " + i);
+        }
+    }
+
+    /**
+     * Number of triangles hit by a ray
+     *
+     * @param ray       the ray
+     * @param triangles the triangles
+     * @return the number of hits
+     */
+    private static int hits(Ray ray, Triangle... triangles) {
+        int count = 0;
+        for (Triangle triangle : triangles)
+            if (!Double.isNaN(triangle.intersect(ray, Double.POSITIVE_INFINITY, null)))
+                ++count;
+        return count;
+    }
+}
@@ -0,0 +1,79 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing VectorMath
+ */
+class VectorMathTest {
+
+    /**
+     * Test method for {@link primitives.VectorMath#tripleProduct(double, double, double, double, double, double, double, double, double)}.
+     */
+    @Test
+    void testTripleProduct() {
+        Vector v = new Vector(1, -2, 3);
+        Vector a = new Vector(2, 1, 0.5);
+        Vector b = new Vector(-1, 4, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same value as with the vectors
+        assertEquals(v.dotProduct(a.crossProduct(b)),
+                VectorMath.tripleProduct(1, -2, 3, 2, 1, 0.5, -1, 4, 2),
+                "Bad triple product");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Parallel vectors a and b
+        assertEquals(0, VectorMath.tripleProduct(1, -2, 3, 2, 1, 0.5, 4, 2, 1), "Triple product of parallel vectors");
+    }
+
+    /**
+     * Test method for {@link primitives.VectorMath#cross(double, double, double, double, double, double, double[], int)}.
+     */
+    @Test
+    void testCross() {
+        double[] result = new double[4];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same vector as the cross product of the vectors, at the offset
+        VectorMath.cross(1, 2, 3, 0, 3, -2, result, 1);
+        assertEquals(new Vector(1, 2, 3).crossProduct(new Vector(0, 3, -2)),
+                new Vector(result[1], result[2], result[3]), "Bad cross product");
+        assertEquals(0, result[0], "Cross product written before the offset");
+    }
+
+    /**
+     * Test method for {@link primitives.VectorMath#reflect(double, double, double, double, double, double, double[], int)}.
+     */
+    @Test
+    void testReflect() {
+        double[] result = new double[3];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Reflection on the plane z = 0
+        VectorMath.reflect(1, 1, -1, 0, 0, 1, result, 0);
+        assertArrayEquals(new double[]{1, 1, 1}, result, "Bad reflected vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Vector in the surface is not changed
+        VectorMath.reflect(1, 2, 0, 0, 0, 1, result, 0);
+        assertArrayEquals(new double[]{1, 2, 0}, result, "Vector in the surface must not change");
+    }
+
+    /**
+     * Test method for {@link primitives.VectorMath#normalize(double, double, double)}.
+     */
+    @Test
+    void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same unit vector as with Vector
+        assertEquals(new Vector(1, 2, 3).normalize(), VectorMath.normalize(1, 2, 3), "Bad normalized vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Vector zero
+        assertThrows(IllegalArgumentException.class, () -> VectorMath.normalize(0, 0, 0),
+                "Normalized the vector zero");
+    }
+}
@@ -1,10 +1,24 @@
 package renderer;
 
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import scene.Scene;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -60,4 +74,75 @@ class CameraTest {
 
     }
 
+    /**
+     * Test method for {@link renderer.Camera#renderImage()}: the parallel render
+     * gives the same pixels as the serial render, and the streamed image the same pixels as the frame buffer
+     *
+     * @throws IOException if the streamed image can't be read
+     */
+    @Test
+    void testRenderImage() throws IOException {
+        Scene scene = new Scene("Test scene")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -100), 40)
+                        .setEmission(new Color(0, 0, 100))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30).setKr(0.3)),
+                new Triangle(new Point(-100, -60, -150), new Point(100, -60, -150), new Point(0, 80, -200))
+                        .setEmission(new Color(60, 20, 20))
+                        .setMaterial(new Material().setKd(0.6).setKs(0.2).setShininess(10)));
+        scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(60, 60, 0)).setKl(0.0005).setKq(0.00005));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 4 threads, tiles cut by the sides of the image
+        int[] serial = render(scene, 0, 0, false);
+        assertArrayEquals(serial, render(scene, 4, 0, false), "Bad parallel render");
+
+        // TC02: 4 threads with adaptive super sampling
+        int[] adaptive = render(scene, 0, 2, false);
+        assertArrayEquals(adaptive, render(scene, 4, 2, false), "Bad parallel adaptive render");
+
+        // TC03: serial render streamed by bands of rows
+        assertArrayEquals(adaptive, render(scene, 0, 2, true), "Bad streamed render");
+
+        // TC04: parallel render streamed by rows of tiles
+        assertArrayEquals(serial, render(scene, 4, 0, true), "Bad streamed parallel render");
+    }
+
+    /**
+     * Render a scene on a 100 X 70 image
+     *
+     * @param scene         the scene
+     * @param threadsCount  number of threads, 0 for the serial render
+     * @param adaptiveDepth depth of the adaptive super sampling, 0 without
+     * @param stream        whether the png image is streamed during the render
+     * @return the colors of the pixels: of the streamed image, or else of the frame buffer
+     * @throws IOException if the streamed image can't be read
+     */
+    private static int[] render(Scene scene, int threadsCount, int adaptiveDepth, boolean stream) throws IOException {
+        ImageWriter imageWriter = new ImageWriter("parallel render test", 100, 70);
+        if (stream)
+            imageWriter.startStream();
+        Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(100)
+                .setVPSize(200, 140)
+                .setImageWriter(imageWriter)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setMultithreading(threadsCount);
+        if (adaptiveDepth > 0)
+            camera.setAdaptiveSuperSampling(adaptiveDepth, 10);
+        camera.renderImage();
+        int[] pixels = new int[100 * 70];
+        if (!stream) {
+            imageWriter.getFrameBuffer().quantize(pixels);
+            return pixels;
+        }
+        imageWriter.writeToImage();
+        BufferedImage image = ImageIO.read(Path.of(System.getProperty("user.dir"), "images",
+                "parallel render test.png").toFile());
+        for (int y = 0; y < 70; ++y)
+            for (int x = 0; x < 100; ++x)
+                pixels[y * 100 + x] = image.getRGB(x, y) & 0xFFFFFF;
+        return pixels;
+    }
 }
@@ -0,0 +1,84 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing FrameBuffer
+ */
+class FrameBufferTest {
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#addSample(int, int, double, double, double)}.
+     */
+    @Test
+    void testAddSample() {
+        FrameBuffer frameBuffer = new FrameBuffer(4, 2);
+        double[] rgb = new double[3];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Samples added by several threads to the same pixel are all counted
+        IntStream.range(0, 40000).parallel().forEach(i -> frameBuffer.addSample(3, 1, 1, 2, 600));
+        assertEquals(40000, frameBuffer.getSamples(3, 1), "Lost samples");
+        frameBuffer.getPixel(3, 1, rgb);
+        assertArrayEquals(new double[]{1, 2, 600}, rgb, "Wrong average of the samples");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Pixel without sample is black
+        frameBuffer.getPixel(0, 0, rgb);
+        assertArrayEquals(new double[]{0, 0, 0}, rgb, "A pixel without sample must be black");
+
+        // TC12: Pixel out of the buffer
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> frameBuffer.addSample(4, 0, 1, 1, 1),
+                "Added a sample out of the buffer");
+    }
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#quantize(int[])}.
+     */
+    @Test
+    void testQuantize() {
+        FrameBuffer frameBuffer = new FrameBuffer(2, 1);
+        frameBuffer.setPixel(0, 0, 10.7, 128, 255.5);
+        frameBuffer.addSample(1, 0, 100, 0, 1000);
+        frameBuffer.addSample(1, 0, 200, 0, 1000);
+        int[] pixels = new int[2];
+        frameBuffer.quantize(pixels);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Pixel set once, components cut to integers
+        assertEquals(0x0A80FF, pixels[0], "Wrong color of a pixel");
+
+        // TC02: Average of the samples, high dynamic range cut to 255 only at the output
+        assertEquals(0x9600FF, pixels[1], "Wrong color of the average of the samples");
+
+        // TC03: Pixels set once have the colors of Color.getColor(), though the radiance is kept as floats
+        Random random = new Random(3);
+        for (int i = 0; i < 100000; ++i) {
+            // values just below and above the integers, and any values
+            double r = Math.nextDown((double) random.nextInt(256));
+            double g = random.nextInt(256) + Math.ulp(200d) * random.nextInt(3);
+            double b = random.nextDouble() * 300;
+            frameBuffer.setPixel(0, 0, r, g, b);
+            frameBuffer.quantize(pixels);
+            assertEquals(new Color(Math.max(0, r), g, b).getColor().getRGB() & 0xFFFFFF, pixels[0],
+                    "Wrong color of " + r + ", " + g + ", " + b);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Negative component cut to 0 without changing the other components
+        frameBuffer.setPixel(0, 0, 10, -20.5, 30);
+        frameBuffer.quantize(pixels);
+        assertEquals(0x0A001E, pixels[0], "A negative component must be cut to 0");
+
+        // TC12: Component just below an integer is cut as by Color.getColor() (it isn't rounded up)
+        frameBuffer.setPixel(0, 0, Math.nextDown(128d), 0.1 + 0.2, 254.99999999999997);
+        frameBuffer.quantize(pixels);
+        assertEquals(0x7F00FE, pixels[0], "Wrong color of a component just below an integer");
+    }
+}
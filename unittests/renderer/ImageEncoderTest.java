@@ -0,0 +1,111 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing ImageEncoder
+ */
+class ImageEncoderTest {
+
+    /**
+     * Test method for {@link renderer.ImageWriter#writeToImage(ImageEncoder)}.
+     *
+     * @throws IOException if an image can't be read
+     */
+    @Test
+    void testWriteToImage() throws IOException {
+        ImageEncoder encoder = new ImageEncoder(1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The frames are written in background, the pixels copied at the submission
+        ImageWriter imageWriter = null;
+        for (int frame = 0; frame < 3; ++frame) {
+            imageWriter = new ImageWriter("imageEncoderTest" + frame, 64, 64);
+            for (int i = 0; i < 64; ++i)
+                imageWriter.writePixel(i, i, frame % 2 == 0 ? Color.RED : Color.YELLOW);
+            imageWriter.writeToImage(encoder);
+            // the render goes on after the submission
+            for (int i = 0; i < 64; ++i)
+                imageWriter.writePixel(i, i, new Color(0, 0, 255));
+        }
+
+        // TC02: A mapped frame buffer is written directly, without copy
+        try (MappedFrameBuffer frameBuffer = new MappedFrameBuffer(64, 64)) {
+            ImageWriter mappedWriter = new ImageWriter("imageEncoderMappedTest", frameBuffer);
+            for (int i = 0; i < 64; ++i)
+                mappedWriter.writePixel(i, i, Color.RED);
+            assertTrue(mappedWriter.writeToImage(encoder).isDone(), "The mapped buffer must be written at once");
+        }
+        BufferedImage mappedImage = ImageIO.read(new File(System.getProperty("user.dir")
+                + "/images/imageEncoderMappedTest.png"));
+        assertEquals(0xFF0000, mappedImage.getRGB(5, 5) & 0xFFFFFF, "Wrong pixel of the mapped buffer");
+
+        encoder.close();
+        assertEquals(0, encoder.getPendingCount(), "All the images must be written after close");
+        for (int frame = 0; frame < 3; ++frame) {
+            BufferedImage image = ImageIO.read(new File(System.getProperty("user.dir")
+                    + "/images/imageEncoderTest" + frame + ".png"));
+            int color = frame % 2 == 0 ? 0xFF0000 : 0xFFFF00;
+            for (int i = 0; i < 64; ++i) {
+                assertEquals(color, image.getRGB(i, i) & 0xFFFFFF, "Wrong pixel of the frame " + frame);
+                assertEquals(0, image.getRGB(i, (i + 1) % 64) & 0xFFFFFF, "Wrong black pixel of the frame " + frame);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Image submitted after close
+        ImageWriter last = imageWriter;
+        assertThrows(IllegalStateException.class, () -> last.writeToImage(encoder),
+                "Submitted an image to a closed encoder");
+
+        // TC12: Capacity lower than the number of threads
+        assertThrows(IllegalArgumentException.class, () -> new ImageEncoder(2, 1),
+                "Created an encoder without place for each thread");
+    }
+
+    /**
+     * Test method for {@link renderer.ImageEncoder#getStallsCount()} and {@link renderer.ImageEncoder#getStallTime()}.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testBackpressure() throws InterruptedException {
+        ImageEncoder encoder = new ImageEncoder(1, 1);
+        ImageWriter imageWriter = new ImageWriter("imageEncoderBackpressureTest", 16, 16);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Submission within the capacity doesn't wait
+        CountDownLatch blocked = new CountDownLatch(1);
+        encoder.submit(() -> () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertEquals(0, encoder.getStallsCount(), "Waited for a free place");
+        assertEquals(1, encoder.getPendingCount(), "Wrong number of pending images");
+
+        // TC02: Submission over the capacity waits until an image is written
+        Thread submitter = new Thread(() -> imageWriter.writeToImage(encoder));
+        submitter.start();
+        while (encoder.getStallsCount() == 0)
+            Thread.sleep(1);
+        Thread.sleep(20);
+        assertTrue(submitter.isAlive(), "The submission over the capacity must wait");
+        blocked.countDown();
+        submitter.join();
+        encoder.close();
+        assertEquals(1, encoder.getStallsCount(), "Wrong number of waits");
+        assertTrue(encoder.getStallTime() > 0, "The time of the wait must be counted");
+    }
+}
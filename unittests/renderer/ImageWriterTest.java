@@ -3,6 +3,17 @@ package renderer;
 import org.junit.jupiter.api.Test;
 import primitives.Color;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Testing class ImageWriter
  */
@@ -41,4 +52,77 @@ class ImageWriterTest {
         // The image is rendered in the package images
         imageWriter.writeToImage();
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the function writeToImage() with the raw formats PPM and PFM
+     *
+     * @throws IOException if the file can't be read
+     */
+    @Test
+    public void writeRawImageTest() throws IOException {
+        ImageWriter imageWriter = new ImageWriter("imageWriterRawTest", 3, 2);
+        assertEquals(ImageFormat.PNG, imageWriter.getFormat(), "PNG must be the default format");
+        imageWriter.writePixel(0, 0, new Color(255, 0, 0));
+        imageWriter.writePixel(2, 1, new Color(510, 127.5, 0));
+
+        // TC01: binary PPM, rows from top to bottom, colors limited to 255
+        imageWriter.setFormat(ImageFormat.PPM).writeToImage();
+        byte[] ppm = Files.readAllBytes(Path.of(System.getProperty("user.dir"), "images", "imageWriterRawTest.ppm"));
+        byte[] header = "P6\n3 2\n255\n".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(header.length + 18, ppm.length, "Wrong size of the PPM file");
+        assertEquals(new String(header, StandardCharsets.US_ASCII),
+                new String(ppm, 0, header.length, StandardCharsets.US_ASCII), "Wrong PPM header");
+        assertEquals(255, ppm[header.length] & 0xFF, "Wrong red of the first pixel");
+        assertEquals(0, ppm[header.length + 1], "Wrong green of the first pixel");
+        assertEquals(255, ppm[header.length + 15] & 0xFF, "The red of the last pixel must be limited to 255");
+        assertEquals(127, ppm[header.length + 16] & 0xFF, "Wrong green of the last pixel");
+
+        // TC02: PFM, little-endian floats, rows from bottom to top, without any limit
+        imageWriter.setFormat(ImageFormat.PFM).writeToImage();
+        byte[] pfm = Files.readAllBytes(Path.of(System.getProperty("user.dir"), "images", "imageWriterRawTest.pfm"));
+        header = "PF\n3 2\n-1.0\n".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(header.length + 72, pfm.length, "Wrong size of the PFM file");
+        ByteBuffer data = ByteBuffer.wrap(pfm, header.length, 72).order(ByteOrder.LITTLE_ENDIAN);
+        // the first row of the file is the bottom row of the image, its last pixel is (2, 1)
+        assertEquals(2f, data.getFloat(header.length + 24), 1e-6, "Wrong red of the last pixel");
+        assertEquals(0.5f, data.getFloat(header.length + 28), 1e-6, "Wrong green of the last pixel");
+        // the second row of the file is the top row, its first pixel is (0, 0)
+        assertEquals(1f, data.getFloat(header.length + 36), 1e-6, "Wrong red of the first pixel");
+        assertEquals(0f, data.getFloat(header.length + 40), 1e-6, "Wrong green of the first pixel");
+
+        // TC03: the format can't be null
+        assertThrows(IllegalArgumentException.class, () -> imageWriter.setFormat(null), "The format can't be null");
+    }
+
+    /**
+     * Test the functions startStream() and writeRows() from the class ImageWriter
+     *
+     * @throws IOException if the file can't be read
+     */
+    @Test
+    public void writeStreamTest() throws IOException {
+        ImageWriter imageWriter = new ImageWriter("imageWriterStreamTest", 40, 30).startStream();
+        // the rows are given out of order, as by the render threads
+        for (int first = 20; first >= 0; first -= 10) {
+            for (int j = first; j < first + 10; ++j)
+                for (int i = 0; i < 40; ++i)
+                    imageWriter.writePixel(i, j, new Color(i * 6, j * 8, 100));
+            imageWriter.writeRows(first, first + 10);
+        }
+        assertTrue(imageWriter.isStreamed(), "The image must be streamed until it is written");
+        imageWriter.writeToImage();
+        assertFalse(imageWriter.isStreamed(), "The stream must be ended by writeToImage");
+
+        BufferedImage image = ImageIO.read(Path.of(System.getProperty("user.dir"), "images",
+                "imageWriterStreamTest.png").toFile());
+        for (int j = 0; j < 30; ++j)
+            for (int i = 0; i < 40; ++i)
+                assertEquals(i * 6 << 16 | j * 8 << 8 | 100, image.getRGB(i, j) & 0xFFFFFF,
+                        "Wrong pixel " + i + ", " + j);
+
+        // only png images can be streamed
+        assertThrows(IllegalStateException.class,
+                () -> new ImageWriter("imageWriterStreamTest", 40, 30).setFormat(ImageFormat.PFM).startStream(),
+                "Streamed a raw image");
+    }
+}
@@ -0,0 +1,136 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing MappedFrameBuffer
+ */
+class MappedFrameBufferTest {
+
+    /**
+     * Test method for {@link renderer.MappedFrameBuffer#addSample(int, int, double, double, double)}.
+     */
+    @Test
+    void testAddSample() {
+        // chunks of 2 rows of 3 pixels
+        try (MappedFrameBuffer frameBuffer = new MappedFrameBuffer(3, 5, null, 100)) {
+            testAddSample(frameBuffer);
+        }
+
+        // TC12: Row longer than a chunk
+        assertThrows(IllegalArgumentException.class, () -> new MappedFrameBuffer(10, 1, null, 100),
+                "Created chunks smaller than a row");
+    }
+
+    /**
+     * Tests of {@link #testAddSample()} on a buffer of 3 x 5 pixels
+     *
+     * @param frameBuffer the buffer
+     */
+    private void testAddSample(MappedFrameBuffer frameBuffer) {
+        double[] rgb = new double[3];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Samples added by several threads to the same pixel are all counted
+        IntStream.range(0, 40000).parallel().forEach(i -> frameBuffer.addSample(2, 3, 1, 2, 600));
+        assertEquals(40000, frameBuffer.getSamples(2, 3), "Lost samples");
+        frameBuffer.getPixel(2, 3, rgb);
+        assertArrayEquals(new double[]{1, 2, 600}, rgb, "Wrong average of the samples");
+
+        // TC02: Pixels of each chunk are distinct
+        for (int y = 0; y < 5; ++y)
+            for (int x = 0; x < 3; ++x)
+                frameBuffer.setPixel(x, y, x, y, 10 * y + x);
+        for (int y = 0; y < 5; ++y)
+            for (int x = 0; x < 3; ++x) {
+                frameBuffer.getPixel(x, y, rgb);
+                assertArrayEquals(new double[]{x, y, 10 * y + x}, rgb, "Wrong pixel " + x + ", " + y);
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Pixel out of the buffer
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> frameBuffer.addSample(0, 5, 1, 1, 1),
+                "Added a sample out of the buffer");
+    }
+
+    /**
+     * Test that the pixels are written in the file and written out as the heap frame buffer
+     *
+     * @throws IOException if the files can't be read or written
+     */
+    @Test
+    void testFile() throws IOException {
+        Path file = Files.createTempFile("mappedFrameBufferTest", ".buffer");
+        Path mappedImage = Files.createTempFile("mappedFrameBufferTest", ".pfm");
+        Path heapImage = Files.createTempFile("frameBufferTest", ".pfm");
+        try {
+            // chunks of 2 rows of 4 pixels
+            MappedFrameBuffer mapped = new MappedFrameBuffer(4, 3, file, 128);
+            FrameBuffer heap = new FrameBuffer(4, 3);
+            for (int y = 0; y < 3; ++y)
+                for (int x = 0; x < 4; ++x) {
+                    mapped.addSample(x, y, x, y, 300);
+                    heap.addSample(x, y, x, y, 300);
+                }
+            mapped.force();
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The file keeps the pixels (16 bytes each)
+            assertEquals(4 * 3 * 16, Files.size(file), "Wrong size of the file");
+
+            // TC02: The image written from the file is the image written from the heap
+            try (SeekableByteChannel channel = Files.newByteChannel(mappedImage, StandardOpenOption.WRITE)) {
+                mapped.writePfm(channel);
+            }
+            try (SeekableByteChannel channel = Files.newByteChannel(heapImage, StandardOpenOption.WRITE)) {
+                heap.writePfm(channel);
+            }
+            assertArrayEquals(Files.readAllBytes(heapImage), Files.readAllBytes(mappedImage),
+                    "The mapped buffer must be written as the heap buffer");
+
+            // TC03: The mapped buffer is not copied
+            assertThrows(UnsupportedOperationException.class, mapped::copy, "Copied a mapped buffer");
+
+            // TC04: The buffer is unmapped by close, and the file given is kept
+            mapped.close();
+            assertThrows(IllegalStateException.class, () -> mapped.getSamples(0, 0), "Used a closed buffer");
+            assertEquals(4 * 3 * 16, Files.size(file), "The file given must be kept");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(mappedImage);
+            Files.deleteIfExists(heapImage);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.MappedFrameBuffer#close()} of a temporary file
+     *
+     * @throws IOException if the temporary folder can't be listed
+     */
+    @Test
+    void testClose() throws IOException {
+        Path folder = Path.of(System.getProperty("java.io.tmpdir"));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The temporary file is deleted
+        MappedFrameBuffer frameBuffer = new MappedFrameBuffer(4, 3);
+        frameBuffer.setPixel(1, 1, 1, 2, 3);
+        frameBuffer.close();
+        try (var files = Files.list(folder)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().matches("frame.*\\.buffer")),
+                    "The temporary file must be deleted");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Close twice
+        assertDoesNotThrow(frameBuffer::close, "Failed to close twice");
+    }
+}
@@ -0,0 +1,125 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing PngStream
+ */
+class PngStreamTest {
+
+    /**
+     * Test method for {@link renderer.PngStream#writeBand(int, int, int[], int)}.
+     *
+     * @throws IOException if the image can't be written or read
+     */
+    @Test
+    void testWriteBand() throws IOException {
+        int nX = 50, nY = 37;
+        int[] pixels = new int[nX * nY];
+        for (int i = 0; i < pixels.length; ++i)
+            pixels[i] = (i * 2654435761L % 0x1000000 > 0x800000) ? i * 37 & 0xFFFFFF : 0x204080;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Bands given out of order by several threads
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+        PngStream png = new PngStream(channel, nX, nY);
+        IntStream.range(0, 10).map(band -> 9 - band).parallel().forEach(band -> {
+            int first = band * 4;
+            png.writeBand(first, Math.min(4, nY - first), pixels, first * nX);
+        });
+        png.finish();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(nX, image.getWidth(), "Wrong width");
+        assertEquals(nY, image.getHeight(), "Wrong height");
+        for (int y = 0; y < nY; ++y)
+            for (int x = 0; x < nX; ++x)
+                assertEquals(pixels[y * nX + x], image.getRGB(x, y) & 0xFFFFFF, "Wrong pixel " + x + ", " + y);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Missing rows
+        PngStream incomplete = new PngStream(Channels.newChannel(new ByteArrayOutputStream()), nX, nY);
+        incomplete.writeBand(0, 10, pixels, 0);
+        incomplete.writeBand(20, 17, pixels, 20 * nX);
+        assertThrows(IllegalStateException.class, incomplete::finish, "Ended an image with missing rows");
+
+        // TC12: Band out of the image
+        assertThrows(IllegalArgumentException.class, () -> incomplete.writeBand(30, 10, pixels, 30 * nX),
+                "Accepted rows out of the image");
+    }
+
+    /**
+     * Test that a band far below the rows written waits for them
+     *
+     * @throws Exception if the image can't be written or read, or the test is interrupted
+     */
+    @Test
+    void testWindow() throws Exception {
+        int nX = 20, nY = 16;
+        int[] pixels = new int[nX * nY];
+        for (int i = 0; i < pixels.length; ++i)
+            pixels[i] = i * 997 & 0xFFFFFF;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // bands of 4 rows may start up to 8 rows after the rows written
+        PngStream png = new PngStream(Channels.newChannel(out), nX, nY, 8);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A band out of the window waits until the bands above it are written
+        Thread late = new Thread(() -> png.writeBand(8, 4, pixels, 8 * nX));
+        late.start();
+        Thread.sleep(50);
+        assertTrue(late.isAlive(), "The band out of the window must wait");
+        png.writeBand(0, 4, pixels, 0);
+        png.writeBand(4, 4, pixels, 4 * nX);
+        late.join();
+        png.writeBand(12, 4, pixels, 12 * nX);
+        png.finish();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        for (int y = 0; y < nY; ++y)
+            for (int x = 0; x < nX; ++x)
+                assertEquals(pixels[y * nX + x], image.getRGB(x, y) & 0xFFFFFF, "Wrong pixel " + x + ", " + y);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Window without rows
+        assertThrows(IllegalArgumentException.class,
+                () -> new PngStream(Channels.newChannel(new ByteArrayOutputStream()), nX, nY, 0),
+                "Created a stream without window");
+    }
+
+    /**
+     * Test method for {@link renderer.PngStream#combine(long, long, long)}.
+     */
+    @Test
+    void testCombine() {
+        byte[] bytes = new byte[200000];
+        for (int i = 0; i < bytes.length; ++i)
+            bytes[i] = (byte) (i * 31 + (i >> 7));
+        Adler32 all = new Adler32();
+        all.update(bytes);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Concatenation of 2 long sequences
+        Adler32 first = new Adler32();
+        first.update(bytes, 0, 123457);
+        Adler32 second = new Adler32();
+        second.update(bytes, 123457, bytes.length - 123457);
+        assertEquals(all.getValue(), PngStream.combine(first.getValue(), second.getValue(), bytes.length - 123457),
+                "Wrong combination of the checksums");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty second sequence
+        assertEquals(all.getValue(), PngStream.combine(all.getValue(), 1, 0), "Wrong combination with nothing");
+    }
+}
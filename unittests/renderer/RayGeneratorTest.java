@@ -0,0 +1,79 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testing RayGenerator
+ */
+class RayGeneratorTest {
+    static final Point ZERO_POINT = new Point(0, 0, 0);
+
+    /**
+     * Camera of the tests: View Plane 8x8 at distance 10
+     */
+    private final Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, -1, 0))
+            .setVPDistance(10).setVPSize(8, 8);
+
+    /**
+     * Test method for {@link renderer.RayGenerator#constructRay(double, double)}.
+     */
+    @Test
+    void testConstructRay() {
+        RayGenerator generator = new RayGenerator(camera, 4, 4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Center of a pixel
+        assertEquals(new Ray(ZERO_POINT, new Vector(1, 1, -10)), generator.constructRay(1, 2),
+                "Bad ray through a pixel");
+
+        // TC02: Corner of a pixel
+        assertEquals(new Ray(ZERO_POINT, new Vector(2, 0, -10)), generator.constructRay(0.5, 1.5),
+                "Bad ray through the corner of a pixel");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Corner of the View Plane
+        assertEquals(new Ray(ZERO_POINT, new Vector(4, -4, -10)), generator.constructRay(-0.5, -0.5),
+                "Bad ray through the corner of the View Plane");
+    }
+
+    /**
+     * Test method for {@link renderer.RayGenerator#constructDirections(int, int, int, double[])}.
+     */
+    @Test
+    void testConstructDirections() {
+        RayGenerator generator = new RayGenerator(camera, 4, 4);
+        double[] directions = new double[12];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Directions of the pixels of a row
+        generator.constructDirections(1, 0, 4, directions);
+        Vector[] row = {new Vector(3, -1, -10), new Vector(1, -1, -10), new Vector(-1, -1, -10), new Vector(-3, -1, -10)};
+        for (int j = 0; j < 4; ++j)
+            assertEquals(new Ray(ZERO_POINT, row[j]),
+                    new Ray(ZERO_POINT, directions[3 * j], directions[3 * j + 1], directions[3 * j + 2]),
+                    "Bad direction of the pixel " + j);
+
+        // TC02: Directions of a part of a row (a tile)
+        generator.constructDirections(2, 1, 3, directions);
+        Vector[] tile = {new Vector(1, 1, -10), new Vector(-1, 1, -10)};
+        for (int j = 0; j < 2; ++j)
+            assertEquals(new Ray(ZERO_POINT, tile[j]),
+                    new Ray(ZERO_POINT, directions[3 * j], directions[3 * j + 1], directions[3 * j + 2]),
+                    "Bad direction of the pixel " + (j + 1) + " of the tile");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Array too small for the row
+        assertThrows(IllegalArgumentException.class, () -> generator.constructDirections(0, 0, 4, new double[11]),
+                "Filled an array too small for the row");
+
+        // TC12: Columns out of the row
+        assertThrows(IllegalArgumentException.class, () -> generator.constructDirections(0, 2, 5, directions),
+                "Filled columns out of the row");
+    }
+}
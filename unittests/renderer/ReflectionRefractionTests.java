@@ -43,9 +43,10 @@ public class ReflectionRefractionTests {
          .writeToImage();
    }
 
-   /** Produce a picture of a sphere lighted by a spot light */
-   @Test
-   public void twoSpheresOnMirrors() {
+   /** Helper function for the pictures of the spheres on mirrors
+    * @param pictName  name of the picture
+    * @param rayTracer the ray tracer of the scene */
+   private void twoSpheresOnMirrorsHelper(String pictName, RayTracerBasic rayTracer) {
       Camera camera = new Camera(new Point(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
          .setVPSize(2500, 2500).setVPDistance(10000); //
 
@@ -69,13 +70,27 @@ public class ReflectionRefractionTests {
       scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4)) //
          .setKl(0.00001).setKq(0.000005));
 
-      ImageWriter imageWriter = new ImageWriter("reflectionTwoSpheresMirrored", 500, 500);
+      ImageWriter imageWriter = new ImageWriter(pictName, 500, 500);
       camera.setImageWriter(imageWriter) //
-         .setRayTracer(new RayTracerBasic(scene)) //
+         .setRayTracer(rayTracer) //
          .renderImage() //
          .writeToImage();
    }
 
+   /** Produce a picture of a sphere lighted by a spot light */
+   @Test
+   public void twoSpheresOnMirrors() {
+      twoSpheresOnMirrorsHelper("reflectionTwoSpheresMirrored", new RayTracerBasic(scene));
+   }
+
+   /** Produce a picture of the spheres on mirrors with a shorter recursion and with
+    * the Russian roulette for the rays of low contribution */
+   @Test
+   public void twoSpheresOnMirrorsRoulette() {
+      twoSpheresOnMirrorsHelper("reflectionTwoSpheresMirroredRoulette", //
+                                new RayTracerBasic(scene).setMaxLevel(4).setMinK(0.01).setRussianRoulette(0.3));
+   }
+
    /** Produce a picture of a two triangles lighted by a spot light with a
     * partially
     * transparent Sphere producing partial shadow */
@@ -104,4 +119,38 @@ public class ReflectionRefractionTests {
          .renderImage() //
          .writeToImage();
    }
+
+   /** Produce a picture of a frosted glass sphere in front of a sphere, and of the
+    * spheres reflected by a brushed metal floor (glossy reflection and blurry
+    * refraction) */
+   @Test
+   public void glossyAndBlurrySpheres() {
+      Camera camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+         .setVPSize(200, 200).setVPDistance(1000);
+
+      scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+
+      scene.geometries.add( //
+                           new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135),
+                                        new Point(75, 75, -150)) //
+                              .setMaterial(new Material().setKd(0.3).setKs(0.3).setShininess(60).setKr(0.5)
+                                 .setGlossiness(0.15)), //
+                           new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150)) //
+                              .setMaterial(new Material().setKd(0.3).setKs(0.3).setShininess(60).setKr(0.5)
+                                 .setGlossiness(0.15)), //
+                           new Sphere(new Point(-30, -20, -80), 25d).setEmission(new Color(RED)) //
+                              .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(30)),
+                           new Sphere(new Point(0, -40, 20), 30d).setEmission(new Color(0, 0, 40)) //
+                              .setMaterial(new Material().setKd(0.1).setKs(0.3).setShininess(30).setKt(0.7)
+                                 .setBlur(0.1)));
+
+      scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(60, 50, 200), new Vector(-1, -1, -4)) //
+         .setKl(4E-5).setKq(2E-7));
+
+      ImageWriter imageWriter = new ImageWriter("glossyBlurrySpheres", 400, 400);
+      camera.setImageWriter(imageWriter) //
+         .setRayTracer(new RayTracerBasic(scene).setBeamSize(16)) //
+         .renderImage() //
+         .writeToImage();
+   }
 }
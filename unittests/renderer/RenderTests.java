@@ -11,6 +11,7 @@ import primitives.Vector;
 import scene.Scene;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test rendering a basic image
@@ -108,6 +109,40 @@ public class RenderTests {
     }
 
 
+    /**
+     * Produce the multi color scene with adaptive super sampling: the rays are
+     * added only on the edges of the bodies
+     */
+    @Test
+    public void adaptiveSuperSamplingTest() {
+        Scene scene = new Scene("Test scene")//
+                .setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.2))); //
+        scene.geometries.add( //
+                new Sphere(new Point(0, 0, -100), 50),
+                new Triangle(
+                        new Point(-100, 0, -100),
+                        new Point(0, 100, -100),
+                        new Point(-100, 100, -100)
+                )
+                        .setEmission(new Color(GREEN)));
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+                .setVPDistance(100) //
+                .setVPSize(500, 500) //
+                .setImageWriter(new ImageWriter("adaptive super sampling test", 500, 500))
+                .setRayTracer(new RayTracerBasic(scene))
+                .setAdaptiveSuperSampling(3, 10);
+
+        camera.renderImage();
+        camera.writeToImage();
+
+        // the corners are traced once, and some pixels are subdivided but not all
+        long corners = 501L * 501L;
+        assertTrue(camera.getSubdividedPixelsCount() > 0, "No pixel was subdivided");
+        assertTrue(camera.getSubdividedPixelsCount() < 500L * 500L / 10, "Too many pixels were subdivided");
+        assertTrue(camera.getSamplesCount() > corners, "Missing samples of the subdivided pixels");
+        assertTrue(camera.getSamplesCount() < 2 * corners, "Too many samples");
+    }
+
     /** Test for XML based scene - for bonus */
     //@Test
     //public void basicRenderXml() {
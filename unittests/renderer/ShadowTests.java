@@ -4,6 +4,9 @@ import geometries.Intersectable;
 import geometries.Sphere;
 import geometries.Triangle;
 import lighting.AmbientLight;
+import lighting.DiskLight;
+import lighting.PointLight;
+import lighting.RectangleLight;
 import lighting.SpotLight;
 import org.junit.jupiter.api.Test;
 import primitives.*;
@@ -130,4 +133,46 @@ public class ShadowTests {
         camera.writeToImage();
     }
 
-}
\ No newline at end of file
+    /**
+     * Helper function for the soft shadow tests: the scene of trianglesSphere with an area light
+     */
+    void trianglesSphereAreaHelper(String pictName, PointLight light) {
+        scene.setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), new Double3(0.15)));
+
+        scene.geometries.add( //
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150)) //
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(60)), //
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150)) //
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(60)), //
+                new Sphere(new Point(0, 0, -11), 30d) //
+                        .setEmission(new Color(java.awt.Color.BLUE)) //
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)) //
+        );
+        scene.lights.add(light.setKl(4E-4).setKq(2E-5));
+
+        camera.setImageWriter(new ImageWriter(pictName, 600, 600)) //
+                .renderImage(); //
+        camera.writeToImage();
+    }
+
+    /**
+     * Produce the picture of trianglesSphere with a soft shadow of a rectangular light
+     */
+    @Test
+    public void trianglesSphereRectangleLight() {
+        trianglesSphereAreaHelper("shadowTrianglesSphereRectangleLight",
+                new RectangleLight(new Color(700, 400, 400), new Point(40, 40, 115),
+                        new Vector(30, 0, 0), new Vector(0, 30, 0)).setShadowDepth(4));
+    }
+
+    /**
+     * Produce the picture of trianglesSphere with a soft shadow of a circular light
+     */
+    @Test
+    public void trianglesSphereDiskLight() {
+        trianglesSphereAreaHelper("shadowTrianglesSphereDiskLight",
+                new DiskLight(new Color(700, 400, 400), new Point(40, 40, 115), new Vector(-1, -1, -4), 15)
+                        .setShadowDepth(4));
+    }
+
+}
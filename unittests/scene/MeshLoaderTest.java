@@ -0,0 +1,133 @@
+package scene;
+
+import geometries.Geometries;
+import geometries.Intersectable.GeoPoint;
+import geometries.Mesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing MeshLoader
+ */
+class MeshLoaderTest {
+
+    /**
+     * Folder for the files of the tests
+     */
+    @TempDir
+    Path folder;
+
+    /**
+     * Test method for {@link scene.MeshLoader#loadObj(Path)}.
+     */
+    @Test
+    void testLoadObj() throws IOException {
+        Path file = folder.resolve("model.obj");
+        Files.writeString(file, """
+                # square of side 2 in the plane z = 0 and a triangle in the plane z = 1
+                v 0 0 0
+                v 2.0 0 0
+                v 2 2e0 0
+                v 0 2 0
+                v 0 0 1
+                v 1 0 1
+                v 0 1.0 1
+                usemtl shiny
+                f 1/1/1 2/2/1 3/3/1 4/4/1
+                usemtl dark
+                f -3//1 -2//1 -1//1
+                """);
+        Material shiny = new Material().setKs(0.8);
+        Geometries model = new MeshLoader().setMaterial("shiny", shiny).load(file);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The square is split in 2 triangles with the material of its group
+        GeoPoint closest = model.findClosestGeoIntersection(new Ray(new Point(1.5, 0.5, -1), new Vector(0, 0, 1)));
+        assertNotNull(closest, "Missing intersection with the square");
+        assertEquals(new Point(1.5, 0.5, 0), closest.point, "Bad intersection with the square");
+        assertEquals(shiny, ((Mesh) closest.geometry).getMaterial(), "Bad material of the square");
+        closest = model.findClosestGeoIntersection(new Ray(new Point(0.5, 1.5, -1), new Vector(0, 0, 1)));
+        assertNotNull(closest, "Missing intersection with the second triangle of the square");
+
+        // TC02: The triangle with relative indices gets the default material
+        closest = model.findClosestGeoIntersection(new Ray(new Point(0.3, 0.1, 2), new Vector(0, 0, -1)));
+        assertNotNull(closest, "Missing intersection with the triangle");
+        assertEquals(new Point(0.3, 0.1, 1), closest.point, "Bad intersection with the triangle");
+        assertEquals(Double3.ZERO, ((Mesh) closest.geometry).getMaterial().kS, "Bad default material");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: File without faces
+        Path empty = folder.resolve("empty.obj");
+        Files.writeString(empty, "v 0 0 0\nv 1 0 0\nv 0 1 0\n");
+        assertThrows(IllegalArgumentException.class, () -> new MeshLoader().load(empty),
+                "Loaded a model without faces");
+
+        // TC12: Face with an index out of the vertices
+        Path bad = folder.resolve("bad.obj");
+        Files.writeString(bad, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n");
+        assertThrows(IllegalArgumentException.class, () -> new MeshLoader().load(bad),
+                "Loaded a face with a bad index");
+    }
+
+    /**
+     * Test method for {@link scene.MeshLoader#loadPly(Path)}.
+     */
+    @Test
+    void testLoadPly() throws IOException {
+        Path file = folder.resolve("model.ply");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.write("""
+                    ply
+                    format binary_big_endian 1.0
+                    comment square of side 2 in the plane z = 0
+                    element vertex 4
+                    property float x
+                    property float y
+                    property float z
+                    property uchar red
+                    element face 1
+                    property list uchar int vertex_indices
+                    end_header
+                    """.getBytes(StandardCharsets.US_ASCII));
+            float[][] vertices = {{0, 0, 0}, {2, 0, 0}, {2, 2, 0}, {0, 2, 0}};
+            for (float[] vertex : vertices) {
+                for (float coordinate : vertex)
+                    out.writeFloat(coordinate);
+                out.writeByte(255);
+            }
+            out.writeByte(4);
+            for (int index = 0; index < 4; ++index)
+                out.writeInt(index);
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The square is split in 2 triangles
+        Geometries model = new MeshLoader().load(file);
+        assertEquals(new Point(1.5, 0.5, 0),
+                model.findClosestGeoIntersection(new Ray(new Point(1.5, 0.5, 1), new Vector(0, 0, -1))).point,
+                "Bad intersection with the first triangle");
+        assertEquals(new Point(0.5, 1.5, 0),
+                model.findClosestGeoIntersection(new Ray(new Point(0.5, 1.5, 1), new Vector(0, 0, -1))).point,
+                "Bad intersection with the second triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ASCII PLY is not supported
+        Path ascii = folder.resolve("ascii.ply");
+        Files.writeString(ascii, "ply\nformat ascii 1.0\nend_header\n");
+        assertThrows(IllegalArgumentException.class, () -> new MeshLoader().load(ascii),
+                "Loaded an ASCII PLY file");
+    }
+}